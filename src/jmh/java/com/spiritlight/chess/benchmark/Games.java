@@ -0,0 +1,22 @@
+package com.spiritlight.chess.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reports the number of processed games as a rate next to the
+ * benchmark score, that is, in games per second.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Games {
+    public long games;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        games = 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.spiritlight.chess.benchmark;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.Perft;
+import com.spiritlight.chess.utils.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft from the classic layout at depths 1 to 6.
+ * <p>
+ * Each trial first checks the count against the published one,
+ * so a broken move generator fails instead of reporting a score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"1", "2", "3", "4", "5", "6"})
+    public int depth;
+
+    private BitBoard board;
+    private Perft perft;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = BitBoard.of(Board.newClassicBoard());
+        perft = new Perft(depth);
+        // Depth 6 takes a while on its own, the benchmark iterations verify nothing new
+        if(depth < 6) {
+            Verification.check(Position.START, perft.count(board, Side.WHITE, depth), depth);
+        }
+    }
+
+    @Benchmark
+    public long startPosition(Nodes nodes) {
+        long count = perft.count(board, Side.WHITE, depth);
+        nodes.nodes += count;
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package com.spiritlight.chess.benchmark;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.MoveGenerator;
+import com.spiritlight.chess.pgn.PgnGame;
+import com.spiritlight.chess.pgn.PgnReader;
+import com.spiritlight.chess.pgn.PgnWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes an archive of random games, reporting games per second.
+ * <p>
+ * The archive is generated once per trial from a fixed seed, so that every
+ * run reads the same games. Reading resolves every move in SAN.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgnBenchmark {
+    @Param({"1000"})
+    public int games;
+
+    private Path archive;
+    private PgnGame[] corpus;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(0x5EED);
+        BitBoard board = new BitBoard(7, 7);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        corpus = new PgnGame[games];
+        for(int i = 0; i < games; i++) {
+            board.setFen(Board.STARTING_FEN);
+            int[] played = new int[160];
+            int count = 0;
+            while(count < played.length) {
+                int end = MoveGenerator.generateLegal(board, board.getSideToMove(), moves, 0);
+                if(end == 0) break;
+                played[count] = moves[random.nextInt(end)];
+                board.playMove(played[count++]);
+            }
+            corpus[i] = new PgnGame(Map.of("Event", "Benchmark", "Round", Integer.toString(i + 1)), Arrays.copyOf(played, count), PgnGame.UNKNOWN);
+        }
+        archive = Files.createTempFile("benchmark", ".pgn");
+        try(PgnWriter writer = PgnWriter.open(archive)) {
+            for(PgnGame game : corpus) {
+                writer.write(game);
+            }
+        }
+        try(PgnReader reader = PgnReader.open(archive)) {
+            int read = 0;
+            while(reader.hasNext()) {
+                if(!reader.next().isValid()) throw new IllegalStateException("Game " + (read + 1) + " does not read back");
+                read++;
+            }
+            if(read != games) throw new IllegalStateException("Read " + read + " games out of " + games);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public long read(Games games) throws IOException {
+        long moves = 0;
+        try(PgnReader reader = PgnReader.open(archive)) {
+            while(reader.hasNext()) {
+                moves += reader.next().getMoveCount();
+                games.games++;
+            }
+        }
+        return moves;
+    }
+
+    @Benchmark
+    public void write(Games games) throws IOException {
+        try(PgnWriter writer = new PgnWriter(Writer.nullWriter())) {
+            for(PgnGame game : corpus) {
+                writer.write(game);
+                games.games++;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.spiritlight.chess.benchmark;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.pieces.AbstractPiece;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.PromotionRule;
+import com.spiritlight.chess.utils.Side;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Well-known perft positions with their published node counts,
+ * all of them with white to move.
+ */
+public enum Position {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", 5,
+            20, 400, 8_902, 197_281, 4_865_609, 119_060_324),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R", 4,
+            48, 2_039, 97_862, 4_085_603, 193_690_690),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", 5,
+            14, 191, 2_812, 43_238, 674_624, 11_030_083),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1", 4,
+            6, 264, 9_467, 422_333, 15_833_292),
+    MIDGAME("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R", 4,
+            44, 1_486, 62_379, 2_103_487, 89_941_194);
+
+    private final String placement;
+    private final int depth;
+    private final long[] nodes;
+
+    Position(String placement, int depth, long... nodes) {
+        this.placement = placement;
+        this.depth = depth;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return The depth this position is benchmarked at
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * @param depth The depth, starting from 1
+     * @return The published node count at the depth
+     */
+    public long nodes(int depth) {
+        if(depth < 1 || depth > nodes.length) throw new IllegalArgumentException("No reference count for depth " + depth);
+        return nodes[depth - 1];
+    }
+
+    /**
+     * Creates a board holding this position. Castling rights are inferred
+     * from the king and rook squares, which matches every position here.
+     */
+    public BitBoard newBoard() {
+        Map<Location, AbstractPiece> layout = new HashMap<>();
+        int x = 0;
+        int y = 7;
+        for(char c : placement.toCharArray()) {
+            if(c == '/') {
+                x = 0;
+                y--;
+            } else if(Character.isDigit(c)) {
+                x += c - '0';
+            } else {
+                Side side = Character.isUpperCase(c) ? Side.WHITE : Side.BLACK;
+                PieceType type = PieceType.of("pnbrqk".indexOf(Character.toLowerCase(c)));
+                layout.put(Location.of(x, y), type.create(null, Location.of(x, y), side));
+                x++;
+            }
+        }
+        return new BitBoard(7, 7, UUID.randomUUID(), layout, PromotionRule.STANDARD);
+    }
+}
@@ -0,0 +1,43 @@
+package com.spiritlight.chess.benchmark;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Perft;
+import com.spiritlight.chess.utils.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft over the standard reference positions, each at the depth
+ * given by {@link Position#depth()}.
+ * <p>
+ * These cover castling, en passant and promotions, which the
+ * classic layout only reaches at greater depths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferencePerftBenchmark {
+    @Param({"KIWIPETE", "ENDGAME", "PROMOTIONS", "MIDGAME"})
+    public Position position;
+
+    private BitBoard board;
+    private Perft perft;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = position.newBoard();
+        perft = new Perft(position.depth());
+        Verification.check(position, perft.count(board, Side.WHITE, position.depth()), position.depth());
+    }
+
+    @Benchmark
+    public long reference(Nodes nodes) {
+        long count = perft.count(board, Side.WHITE, position.depth());
+        nodes.nodes += count;
+        return count;
+    }
+}
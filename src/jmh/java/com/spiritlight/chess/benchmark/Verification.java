@@ -0,0 +1,17 @@
+package com.spiritlight.chess.benchmark;
+
+final class Verification {
+    private Verification() {
+
+    }
+
+    /**
+     * @throws IllegalStateException if the count does not match the published one
+     */
+    static void check(Position position, long nodes, int depth) {
+        long expected = position.nodes(depth);
+        if(nodes != expected) {
+            throw new IllegalStateException("Perft of " + position + " at depth " + depth + " returned " + nodes + ", expected " + expected);
+        }
+    }
+}
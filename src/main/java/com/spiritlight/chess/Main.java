@@ -46,6 +46,10 @@ public class Main implements GameFinishEvent.Listener {
 
     @Override
     public void onFinish(GameFinishEvent e) {
-        System.out.println(e.getWinner() + " won!");
+        if(e.getWinner() == null) {
+            System.out.println("Draw by " + e.getReason());
+        } else {
+            System.out.println(e.getWinner() + " won by " + e.getReason());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Scores positions for a {@link Search}. Evaluators are called at every leaf,
+ * and should therefore be cheap and must not change the board.
+ */
+@FunctionalInterface
+public interface Evaluator {
+    /**
+     * Material and piece-square tables, read from the score each board keeps
+     * up to date on every move, capture and promotion
+     * @see BitBoard#getPieceSquareScore()
+     */
+    Evaluator DEFAULT = board -> board.getSideToMove() == Side.WHITE ? board.getPieceSquareScore() : -board.getPieceSquareScore();
+
+    /**
+     * Scores a position
+     * @param board The position
+     * @return The score in centipawns, positive when the side to move is better
+     */
+    int evaluate(BitBoard board);
+}
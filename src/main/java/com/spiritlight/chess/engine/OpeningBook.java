@@ -0,0 +1,172 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An opening book read from a file of moves keyed by
+ * {@link BitBoard#positionKey()}, as written by {@link OpeningBookBuilder}.
+ * <br /> <br />
+ * The file holds a header followed by entries of 12 bytes, the position key,
+ * the move and its weight, sorted by key and then by move:
+ * <pre>
+ *     header  long magic, long entry count
+ *     entry   long key, short move, short weight (unsigned)
+ * </pre>
+ * The entries are memory-mapped and never copied to the heap, in segments
+ * of {@code 2^27} entries so that files of any size can be opened. Lookups
+ * are binary searches over the mapping and allocate nothing.
+ * <p>
+ * Books are safe to share between threads. The mapping is released once the
+ * book is no longer reachable.
+ */
+public final class OpeningBook {
+    /**
+     * "SLCBOOK1"
+     */
+    static final long MAGIC = 0x534C43424F4F4B31L;
+    static final int HEADER_BYTES = 2 * Long.BYTES;
+    static final int ENTRY_BYTES = Long.BYTES + 2 * Short.BYTES;
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private OpeningBook(ByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Opens a book
+     * @param path The book file
+     * @return The book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while(header.hasRemaining()) {
+                if(channel.read(header, header.position()) < 0) throw new IOException("Not an opening book: " + path);
+            }
+            long size = header.getLong(Long.BYTES);
+            if(header.getLong(0) != MAGIC || size < 0 || channel.size() != HEADER_BYTES + size * ENTRY_BYTES) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for(int i = 0; i < segments.length; i++) {
+                long first = (long) i << SEGMENT_SHIFT;
+                long count = Math.min(size - first, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * ENTRY_BYTES, count * ENTRY_BYTES);
+            }
+            return new OpeningBook(segments, size);
+        }
+    }
+
+    /**
+     * @return The number of entries of this book
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Finds the first entry of a position
+     * @param key The position key
+     * @return The index of the entry, or {@code -1} if the position is not in the book
+     */
+    public long find(long key) {
+        long low = 0;
+        long high = size;
+        while(low < high) {
+            long mid = (low + high) >>> 1;
+            if(getKey(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size && getKey(low) == key ? low : -1;
+    }
+
+    public long getKey(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    /**
+     * @return The move of an entry, as encoded by {@link Move}
+     */
+    public int getMove(long index) {
+        return segment(index).getShort(offset(index) + Long.BYTES) & 0xFFFF;
+    }
+
+    public int getWeight(long index) {
+        return segment(index).getShort(offset(index) + Long.BYTES + Short.BYTES) & 0xFFFF;
+    }
+
+    /**
+     * Collects the book moves of a position
+     * @param key The position key
+     * @param moves The array to store the moves in
+     * @param weights The array to store the weight of each move in, at the same index
+     * @return The number of moves stored, at most the length of the arrays
+     */
+    public int getMoves(long key, int[] moves, int[] weights) {
+        long index = find(key);
+        if(index < 0) return 0;
+        int limit = Math.min(moves.length, weights.length);
+        int count = 0;
+        for(; count < limit && index < size && getKey(index) == key; index++, count++) {
+            moves[count] = getMove(index);
+            weights[count] = getWeight(index);
+        }
+        return count;
+    }
+
+    /**
+     * Picks a book move of a position, each with a chance proportional to its weight
+     * @param key The position key
+     * @param random A random number, any value
+     * @return The move, or {@link Move#NONE} if the position is not in the book
+     */
+    public int pick(long key, long random) {
+        long first = find(key);
+        if(first < 0) return Move.NONE;
+        long total = 0;
+        long end = first;
+        for(; end < size && getKey(end) == key; end++) {
+            total += getWeight(end);
+        }
+        if(total == 0) return Move.NONE;
+        long target = Long.remainderUnsigned(random, total);
+        for(long index = first; index < end; index++) {
+            target -= getWeight(index);
+            if(target < 0) return getMove(index);
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Picks a book move of the position of a board
+     * @see #pick(long, long)
+     */
+    public int pick(BitBoard board, long random) {
+        return pick(board.positionKey(), random);
+    }
+
+    private ByteBuffer segment(long index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Entry " + index + " of " + size);
+        return segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index & SEGMENT_MASK) * ENTRY_BYTES;
+    }
+}
@@ -0,0 +1,196 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.pgn.PgnGame;
+import com.spiritlight.chess.utils.Side;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Compiles an {@link OpeningBook} from a corpus of games.
+ * <br /> <br />
+ * Every move played within the first plies of a game is counted for the position
+ * it was played in, weighted by how the game ended for the side that played it:
+ * 2 for a win, 1 for a draw or an unknown result and 0 for a loss. Moves that
+ * only ever lost are left out of the book.
+ * <p>
+ * Occurrences are gathered in primitive arrays, 16 bytes each, and sorted
+ * and merged once the book is written. Builders are not thread-safe.
+ */
+public final class OpeningBookBuilder {
+    private static final int BUFFER_ENTRIES = 4096;
+
+    private final int maxPly;
+    private final BitBoard board = new BitBoard(7, 7);
+    private long[] keys = new long[1024];
+    private int[] moves = new int[1024];
+    private int[] weights = new int[1024];
+    private int size;
+
+    /**
+     * Creates a builder
+     * @param maxPly The number of plies of each game to record
+     */
+    public OpeningBookBuilder(int maxPly) {
+        if(maxPly < 1) throw new IllegalArgumentException("At least one ply must be recorded");
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Records the opening of a game. Games whose moves could not all be read
+     * are recorded up to the failing move.
+     * @param game The game, on an 8x8 board
+     * @return This builder
+     */
+    public OpeningBookBuilder add(PgnGame game) {
+        Side winner = switch(game.getResult()) {
+            case PgnGame.WHITE_WINS -> Side.WHITE;
+            case PgnGame.BLACK_WINS -> Side.BLACK;
+            default -> null;
+        };
+        board.setFen(game.getStartingFen());
+        int plies = Math.min(maxPly, game.getMoveCount());
+        for(int i = 0; i < plies; i++) {
+            int move = game.getMove(i);
+            Side side = board.getSideToMove();
+            add(board.positionKey(), move, winner == null ? 1 : winner == side ? 2 : 0);
+            board.playMove(move);
+        }
+        return this;
+    }
+
+    /**
+     * Records the openings of all remaining games, such as those of a
+     * {@link com.spiritlight.chess.pgn.PgnReader}
+     * @param games The games
+     * @return The number of games recorded
+     */
+    public long addAll(Iterator<PgnGame> games) {
+        long count = 0;
+        while(games.hasNext()) {
+            add(games.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the book of all games recorded so far, more games may be added
+     * and written afterwards. Weights above 65535 are capped.
+     * @param path The file to create or overwrite
+     * @return The number of entries written
+     * @throws IOException if writing fails
+     */
+    public long write(Path path) throws IOException {
+        sort();
+        merge();
+        long entries = 0;
+        for(int i = 0; i < size; i++) {
+            if(weights[i] > 0) entries++;
+        }
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_ENTRIES * OpeningBook.ENTRY_BYTES);
+            buffer.putLong(OpeningBook.MAGIC).putLong(entries);
+            for(int i = 0; i < size; i++) {
+                if(weights[i] == 0) continue;
+                if(buffer.remaining() < OpeningBook.ENTRY_BYTES) drain(channel, buffer);
+                buffer.putLong(keys[i]).putShort((short) moves[i]).putShort((short) Math.min(weights[i], 0xFFFF));
+            }
+            drain(channel, buffer);
+        }
+        return entries;
+    }
+
+    /**
+     * @return The number of moves recorded so far, repeated moves of a
+     * position count once after being written
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(long key, int move, int weight) {
+        if(size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            moves = Arrays.copyOf(moves, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        keys[size] = key;
+        moves[size] = move;
+        weights[size] = weight;
+        size++;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Folds the occurrences of each position and move into one, the entries
+     * being sorted
+     */
+    private void merge() {
+        int last = -1;
+        for(int i = 0; i < size; i++) {
+            if(last >= 0 && keys[last] == keys[i] && moves[last] == moves[i]) {
+                weights[last] = (int) Math.min((long) weights[last] + weights[i], Integer.MAX_VALUE);
+                continue;
+            }
+            last++;
+            keys[last] = keys[i];
+            moves[last] = moves[i];
+            weights[last] = weights[i];
+        }
+        size = last + 1;
+    }
+
+    /**
+     * Heapsort by key and then by move, in place over the three arrays
+     */
+    private void sort() {
+        for(int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size);
+        }
+        for(int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        while(true) {
+            int child = 2 * i + 1;
+            if(child >= end) return;
+            if(child + 1 < end && compare(child, child + 1) < 0) child++;
+            if(compare(i, child) >= 0) return;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private int compare(int a, int b) {
+        int ret = Long.compare(keys[a], keys[b]);
+        return ret != 0 ? ret : Integer.compare(moves[a], moves[b]);
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int move = moves[a];
+        moves[a] = moves[b];
+        moves[b] = move;
+        int weight = weights[a];
+        weights[a] = weights[b];
+        weights[b] = weight;
+    }
+}
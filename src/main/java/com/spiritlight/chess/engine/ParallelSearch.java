@@ -0,0 +1,158 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link Search} run by several threads at once, each over its own copy
+ * of the board, that cooperate only through a shared {@link TranspositionTable}.
+ * <br /> <br />
+ * The main search runs on the calling thread and decides the result, helper
+ * threads search the same position to fill the table with results the others
+ * can cut off on. Every other helper starts one iteration deeper, so that the
+ * threads do not all walk the same tree in the same order. The helpers stop
+ * as soon as the main search does.
+ * <p>
+ * With a single thread no helper is started and a run is deterministic for
+ * a given position and table contents, which makes that mode suited to tests.
+ * <p>
+ * An instance may be reused, but runs only one search at a time.
+ */
+public final class ParallelSearch {
+    /**
+     * Memory budget of the table created when none is given, in megabytes
+     */
+    public static final int DEFAULT_TABLE_SIZE = 64;
+
+    private final Search[] searches;
+    private final TranspositionTable table;
+
+    /**
+     * Creates a search using one thread per available processor
+     * @param board The position to search
+     */
+    public ParallelSearch(BitBoard board) {
+        this(board, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a search with a table of {@link #DEFAULT_TABLE_SIZE} megabytes
+     * @param board The position to search
+     * @param threads The number of threads to search with
+     */
+    public ParallelSearch(BitBoard board, int threads) {
+        this(board, threads, new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * Creates a search over copies of the given board
+     * @param board The position to search
+     * @param threads The number of threads to search with, {@code 1} searches
+     *                on the calling thread only
+     * @param table The table shared by all threads
+     */
+    public ParallelSearch(BitBoard board, int threads, TranspositionTable table) {
+        this(board, threads, table, Evaluator.DEFAULT);
+    }
+
+    /**
+     * Creates a search over copies of the given board
+     * @param board The position to search
+     * @param threads The number of threads to search with, {@code 1} searches
+     *                on the calling thread only
+     * @param table The table shared by all threads
+     * @param evaluator The evaluator scoring the leaves, shared by all threads
+     */
+    public ParallelSearch(BitBoard board, int threads, TranspositionTable table, Evaluator evaluator) {
+        if(threads < 1) throw new IllegalArgumentException("At least one thread is required");
+        this.table = table;
+        this.searches = new Search[threads];
+        for(int i = 0; i < threads; i++) {
+            searches[i] = new Search(board, table, evaluator);
+        }
+    }
+
+    /**
+     * Starts searching a position in the background
+     * @param board The position to search, it is copied before returning
+     * @param threads The number of threads to search with
+     * @param table The table shared by all threads
+     * @param limits The limits of the search
+     * @param executor The executor to run the main search on, helpers
+     *                 run on threads of their own
+     * @return A handle to follow or cancel the search
+     */
+    public static SearchHandle start(BitBoard board, int threads, TranspositionTable table, SearchLimits limits, Executor executor) {
+        ParallelSearch search = new ParallelSearch(board, threads, table);
+        return new SearchHandle(search.searches[0], CompletableFuture.supplyAsync(() -> search.run(limits), executor));
+    }
+
+    /**
+     * Replaces the position to search, this also clears a previous {@link #stop()}
+     * @param board The position to search
+     */
+    public void setPosition(BitBoard board) {
+        for(Search search : searches) {
+            search.setPosition(board);
+        }
+    }
+
+    /**
+     * Stops the current run, and any later one until {@link #setPosition(BitBoard)}
+     */
+    public void stop() {
+        searches[0].stop();
+    }
+
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the position, blocking until the main search completes
+     * @param limits The limits of the search, node limits apply
+     *               to the main search only
+     * @return The result of the main search, with the nodes of all threads
+     */
+    public SearchResult run(SearchLimits limits) {
+        if(searches.length == 1) return searches[0].run(limits);
+
+        table.newSearch();
+        SearchLimits helperLimits = limits.withNodes(Long.MAX_VALUE);
+        Thread[] helpers = new Thread[searches.length - 1];
+        for(int i = 0; i < helpers.length; i++) {
+            Search helper = searches[i + 1];
+            int firstDepth = 1 + (i & 1);
+            helper.setCancelled(false);
+            helpers[i] = new Thread(() -> helper.run(helperLimits, firstDepth), "Search helper #" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        SearchResult result;
+        try {
+            result = searches[0].run(limits, 1);
+        } finally {
+            for(int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+        }
+        long nodes = result.nodes();
+        for(int i = 0; i < helpers.length; i++) {
+            try {
+                helpers[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            nodes += searches[i + 1].getNodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes);
+    }
+}
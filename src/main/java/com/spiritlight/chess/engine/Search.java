@@ -0,0 +1,406 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.MoveGenerator;
+import com.spiritlight.chess.game.PieceSquare;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Alpha-beta search in negamax form over a copy of a board, deepening
+ * iteratively until one of its {@link SearchLimits} is reached.
+ * <br /> <br />
+ * Captures are tried first, most valuable victim by least valuable attacker,
+ * and the best move of the previous iteration leads the next one. Leaves are
+ * resolved by a quiescence search over captures and promotions, or over all
+ * evasions when in check, and scored by an {@link Evaluator}, by default
+ * material and piece-square tables.
+ * <p>
+ * Results are cached in a {@link TranspositionTable} if one is given, which
+ * may be shared with other searches, and the cached best move is tried first.
+ * <p>
+ * An instance searches on the calling thread and may be reused, but is not
+ * thread-safe; see {@link #start(BitBoard, SearchLimits, Executor)} for
+ * searching in the background.
+ */
+public final class Search {
+    public static final int MAX_DEPTH = 64;
+    /**
+     * Score of being checkmated right away, mates further away score
+     * one less per ply
+     */
+    public static final int MATE = 32_000;
+    private static final int INFINITY = MATE + 1;
+    /**
+     * Deepest ply including quiescence
+     */
+    private static final int MAX_PLY = 128;
+
+    private final BitBoard board;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES * MAX_PLY];
+    private final int[] scores = new int[moves.length];
+    private final long[] keys = new long[MAX_PLY];
+    private volatile boolean cancelled;
+    private volatile SearchResult current;
+    private boolean stopped;
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+
+    /**
+     * Creates a search over a copy of the given board,
+     * the side to move is taken from the board
+     * @param board The position to search
+     */
+    public Search(BitBoard board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a search over a copy of the given board,
+     * the side to move is taken from the board
+     * @param board The position to search
+     * @param table The table to cache results in, or {@code null} for none
+     */
+    public Search(BitBoard board, @Nullable TranspositionTable table) {
+        this(board, table, Evaluator.DEFAULT);
+    }
+
+    /**
+     * Creates a search over a copy of the given board,
+     * the side to move is taken from the board
+     * @param board The position to search
+     * @param table The table to cache results in, or {@code null} for none
+     * @param evaluator The evaluator scoring the leaves
+     */
+    public Search(BitBoard board, @Nullable TranspositionTable table, Evaluator evaluator) {
+        this.board = board.copy();
+        this.table = table;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Starts searching a position in the background
+     * @param board The position to search, it is copied before returning
+     * @param limits The limits of the search
+     * @param executor The executor to run the search on
+     * @return A handle to follow or cancel the search
+     */
+    public static SearchHandle start(BitBoard board, SearchLimits limits, Executor executor) {
+        return start(board, null, limits, executor);
+    }
+
+    /**
+     * Starts searching a position in the background
+     * @param board The position to search, it is copied before returning
+     * @param table The table to cache results in, or {@code null} for none
+     * @param limits The limits of the search
+     * @param executor The executor to run the search on
+     * @return A handle to follow or cancel the search
+     */
+    public static SearchHandle start(BitBoard board, @Nullable TranspositionTable table, SearchLimits limits, Executor executor) {
+        Search search = new Search(board, table);
+        return new SearchHandle(search, CompletableFuture.supplyAsync(() -> search.run(limits), executor));
+    }
+
+    /**
+     * Replaces the position to search, this also clears a previous {@link #stop()}
+     * @param board The position to search
+     */
+    public void setPosition(BitBoard board) {
+        this.board.copyFrom(board);
+        this.cancelled = false;
+    }
+
+    /**
+     * Stops the current run, and any later one until {@link #setPosition(BitBoard)}
+     */
+    public void stop() {
+        cancelled = true;
+    }
+
+    void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * @return The nodes visited by the last run
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The result of the deepest iteration completed so far
+     */
+    public @Nullable SearchResult getCurrentResult() {
+        return current;
+    }
+
+    /**
+     * Searches the position
+     * @param limits The limits of the search
+     * @return The result of the deepest iteration completed
+     */
+    public SearchResult run(SearchLimits limits) {
+        if(table != null) table.newSearch();
+        return run(limits, 1);
+    }
+
+    /**
+     * Searches the position, starting to deepen at the given depth
+     * @param limits The limits of the search
+     * @param firstDepth The depth of the first iteration
+     * @return The result of the deepest iteration completed
+     */
+    SearchResult run(SearchLimits limits, int firstDepth) {
+        firstDepth = Math.min(firstDepth, limits.depth());
+        stopped = false;
+        nodes = 0;
+        current = null;
+        maxNodes = limits.nodes();
+        deadline = limits.millis() >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE : System.nanoTime() + limits.millis() * 1_000_000;
+
+        Side side = board.getSideToMove();
+        int end = MoveGenerator.generateLegal(board, side, moves, 0);
+        if(end == 0) {
+            current = new SearchResult(Move.NONE, inCheck(side) ? -MATE : 0, 0, 0);
+            return current;
+        }
+        scoreMoves(0, end, Move.NONE);
+        for(int i = 0; i < end; i++) {
+            pick(i, end);
+        }
+        keys[0] = board.positionKey();
+
+        SearchResult best = new SearchResult(moves[0], 0, 0, 0);
+        for(int depth = firstDepth; depth <= limits.depth() && !stopped; depth++) {
+            int alpha = -INFINITY;
+            int bestIndex = -1;
+            for(int i = 0; i < end; i++) {
+                board.makeMove(moves[i]);
+                int score = -search(depth - 1, 1, -INFINITY, -alpha, end);
+                board.unmakeMove();
+                if(stopped) break;
+                if(score > alpha) {
+                    alpha = score;
+                    bestIndex = i;
+                }
+            }
+            // Partial iterations are only trusted when nothing else is available
+            if(bestIndex < 0 || (stopped && depth > firstDepth)) break;
+            best = new SearchResult(moves[bestIndex], alpha, depth, nodes);
+            current = best;
+            if(table != null) table.store(keys[0], best.bestMove(), alpha, depth, TranspositionTable.EXACT);
+            // Let the best move lead the next iteration
+            int move = moves[bestIndex];
+            System.arraycopy(moves, 0, moves, 1, bestIndex);
+            moves[0] = move;
+            if(isMateScore(alpha)) break;
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes);
+    }
+
+    /**
+     * @param score A score returned by a search
+     * @return Whether the score stands for a forced mate, for either side
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta, int offset) {
+        if(depth <= 0) return quiesce(ply, alpha, beta, offset);
+        if(tick()) return 0;
+        long key = board.positionKey();
+        keys[ply] = key;
+        for(int i = ply - 4; i >= 0; i -= 2) {
+            if(keys[i] == key) return 0;
+        }
+        int hashMove = Move.NONE;
+        if(table != null) {
+            long entry = table.probe(key);
+            if(entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if(TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    switch(TranspositionTable.bound(entry)) {
+                        case TranspositionTable.EXACT -> {
+                            return score;
+                        }
+                        case TranspositionTable.LOWER -> {
+                            if(score >= beta) return score;
+                        }
+                        case TranspositionTable.UPPER -> {
+                            if(score <= alpha) return score;
+                        }
+                    }
+                }
+            }
+        }
+        Side side = board.getSideToMove();
+        int end = MoveGenerator.generateLegal(board, side, moves, offset);
+        if(end == offset) return inCheck(side) ? -MATE + ply : 0;
+        if(ply >= MAX_PLY - 1) return evaluate();
+        scoreMoves(offset, end, hashMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for(int i = offset; i < end; i++) {
+            int move = pick(i, end);
+            board.makeMove(move);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha, end);
+            board.unmakeMove();
+            if(stopped) return 0;
+            if(score > best) {
+                best = score;
+                bestMove = move;
+                if(score > alpha) {
+                    alpha = score;
+                    if(alpha >= beta) break;
+                }
+            }
+        }
+        if(table != null) {
+            int bound = best >= beta ? TranspositionTable.LOWER : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+            table.store(key, bestMove, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    /**
+     * Mate scores are stored relative to the position rather than to the root
+     */
+    private static int toTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY) return score + ply;
+        if(score <= -(MATE - MAX_PLY)) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY) return score - ply;
+        if(score <= -(MATE - MAX_PLY)) return score + ply;
+        return score;
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet. A side in
+     * check may not stand pat, all its evasions are searched instead.
+     */
+    private int quiesce(int ply, int alpha, int beta, int offset) {
+        if(tick()) return 0;
+        Side side = board.getSideToMove();
+        if(ply >= MAX_PLY - 1) return evaluate();
+        boolean check = inCheck(side);
+        int best;
+        int end;
+        if(check) {
+            best = -MATE + ply;
+            end = MoveGenerator.generateLegal(board, side, moves, offset);
+        } else {
+            best = evaluate();
+            if(best >= beta) return best;
+            if(best > alpha) alpha = best;
+            // Only the tactical moves are checked for legality
+            int generated = MoveGenerator.generate(board, side, moves, offset);
+            end = offset;
+            for(int i = offset; i < generated; i++) {
+                int move = moves[i];
+                if((Move.isCapture(move) || Move.isPromotion(move)) && MoveGenerator.isLegal(board, side, move)) {
+                    moves[end++] = move;
+                }
+            }
+        }
+        scoreMoves(offset, end, Move.NONE);
+        for(int i = offset; i < end; i++) {
+            board.makeMove(pick(i, end));
+            int score = -quiesce(ply + 1, -beta, -alpha, end);
+            board.unmakeMove();
+            if(stopped) return 0;
+            if(score > best) {
+                best = score;
+                if(score > alpha) {
+                    alpha = score;
+                    if(alpha >= beta) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the limits every so often
+     * @return Whether the search has to stop
+     */
+    private boolean tick() {
+        if(++nodes >= maxNodes) {
+            stopped = true;
+        } else if((nodes & 1023) == 0 && (cancelled || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Score from the view of the side to move, kept clear of mate scores
+     */
+    private int evaluate() {
+        int score = evaluator.evaluate(board);
+        return Math.max(-(MATE - MAX_PLY) + 1, Math.min(MATE - MAX_PLY - 1, score));
+    }
+
+    private boolean inCheck(Side side) {
+        long king = board.getPieces(side, PieceType.KING);
+        return king != 0 && MoveGenerator.isAttacked(board, Long.numberOfTrailingZeros(king), side.other());
+    }
+
+    /**
+     * Scores moves for ordering: the cached best move, then captures by most
+     * valuable victim and least valuable attacker, promotions by the promoted
+     * piece, and quiet moves last
+     */
+    private void scoreMoves(int from, int to, int hashMove) {
+        for(int i = from; i < to; i++) {
+            int move = moves[i];
+            if(move == hashMove) {
+                scores[i] = Integer.MAX_VALUE;
+                continue;
+            }
+            int score = 0;
+            if(Move.isCapture(move)) {
+                PieceType victim = Move.isEnPassant(move) ? PieceType.PAWN : PieceType.of(PieceType.typeOf(board.getPieceCode(Move.to(move))));
+                int attacker = PieceType.typeOf(board.getPieceCode(Move.from(move)));
+                score += 1_000 + PieceSquare.material(victim) * 8 - attacker;
+            }
+            if(Move.isPromotion(move)) {
+                score += PieceSquare.material(Move.promotion(move));
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Moves the best scored move of the range to its start
+     * @return The move picked
+     */
+    private int pick(int from, int to) {
+        int best = from;
+        for(int i = from + 1; i < to; i++) {
+            if(scores[i] > scores[best]) best = i;
+        }
+        int move = moves[best];
+        moves[best] = moves[from];
+        moves[from] = move;
+        int score = scores[best];
+        scores[best] = scores[from];
+        scores[from] = score;
+        return move;
+    }
+}
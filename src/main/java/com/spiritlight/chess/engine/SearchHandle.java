@@ -0,0 +1,50 @@
+package com.spiritlight.chess.engine;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A search running in the background
+ */
+public final class SearchHandle {
+    private final Search search;
+    private final CompletableFuture<SearchResult> future;
+
+    SearchHandle(Search search, CompletableFuture<SearchResult> future) {
+        this.search = search;
+        this.future = future;
+    }
+
+    /**
+     * Stops the search as soon as possible, it then completes
+     * with the best move found so far
+     */
+    public void cancel() {
+        search.stop();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Waits for the search to complete
+     * @return The result of the search
+     */
+    public SearchResult join() {
+        return future.join();
+    }
+
+    public CompletableFuture<SearchResult> future() {
+        return future;
+    }
+
+    /**
+     * @return The result of the deepest iteration completed so far,
+     * or {@code null} if none has completed yet
+     */
+    public @Nullable SearchResult getCurrentResult() {
+        return search.getCurrentResult();
+    }
+}
@@ -0,0 +1,46 @@
+package com.spiritlight.chess.engine;
+
+/**
+ * Limits of a search, whichever is reached first ends it.
+ * The search always completes depth 1 unless it is cancelled.
+ *
+ * @param depth The maximum depth to deepen to, in plies
+ * @param nodes The maximum number of nodes to visit
+ * @param millis The maximum time to search for, in milliseconds
+ */
+public record SearchLimits(int depth, long nodes, long millis) {
+    /**
+     * No limit but the maximum depth, such a search should be cancelled
+     * via {@link SearchHandle#cancel()}
+     */
+    public static final SearchLimits INFINITE = new SearchLimits(Search.MAX_DEPTH, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public SearchLimits {
+        if(depth < 1 || depth > Search.MAX_DEPTH) throw new IllegalArgumentException("Depth must be between 1 and " + Search.MAX_DEPTH);
+        if(nodes < 1 || millis < 1) throw new IllegalArgumentException("Node and time limits must be positive");
+    }
+
+    public static SearchLimits ofDepth(int depth) {
+        return INFINITE.withDepth(depth);
+    }
+
+    public static SearchLimits ofNodes(long nodes) {
+        return INFINITE.withNodes(nodes);
+    }
+
+    public static SearchLimits ofMillis(long millis) {
+        return INFINITE.withMillis(millis);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, nodes, millis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, nodes, millis);
+    }
+
+    public SearchLimits withMillis(long millis) {
+        return new SearchLimits(depth, nodes, millis);
+    }
+}
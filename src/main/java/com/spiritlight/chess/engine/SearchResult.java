@@ -0,0 +1,20 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.Move;
+
+/**
+ * Outcome of a search
+ *
+ * @param bestMove The best move found, or {@link Move#NONE} if there is no legal move
+ * @param score The score in centipawns from the view of the side to move,
+ *              see {@link Search#isMateScore(int)} for mates
+ * @param depth The depth the search completed
+ * @param nodes The number of nodes visited
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes) {
+
+    @Override
+    public String toString() {
+        return "SearchResult[bestMove=" + Move.toString(bestMove) + ", score=" + score + ", depth=" + depth + ", nodes=" + nodes + "]";
+    }
+}
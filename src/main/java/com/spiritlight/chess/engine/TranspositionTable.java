@@ -0,0 +1,157 @@
+package com.spiritlight.chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of search results keyed by {@link com.spiritlight.chess.game.BitBoard#positionKey()},
+ * safe to share between any number of searching threads without locking.
+ * <br /> <br />
+ * Each entry takes two {@code long}s of a single array: the packed data, and the
+ * position key XOR-ed with that data. A reader only accepts an entry whose two
+ * words XOR back to the key it looks for, so an entry torn by a concurrent write
+ * is simply a miss instead of a wrong result.
+ * <p>
+ * Entries are grouped in buckets of two: the first keeps the deepest result
+ * of the current search, the second always takes the newest one.
+ * <p>
+ * Probing returns the packed entry as a {@code long}, {@code 0} on a miss,
+ * to be read with {@link #move(long)}, {@link #score(long)}, {@link #depth(long)}
+ * and {@link #bound(long)}.
+ */
+public final class TranspositionTable {
+    /**
+     * The score is the exact value of the position
+     */
+    public static final int EXACT = 1;
+    /**
+     * The score is a lower bound, the search failed high
+     */
+    public static final int LOWER = 2;
+    /**
+     * The score is an upper bound, the search failed low
+     */
+    public static final int UPPER = 3;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    /**
+     * Size of an entry in bytes
+     */
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Creates a table using at most the given amount of memory
+     * @param megabytes The memory budget, in megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        if(megabytes < 1) throw new IllegalArgumentException("The table needs at least 1 MB");
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (2 * ENTRY_BYTES));
+        // Array length is bounded by Integer.MAX_VALUE
+        buckets = Math.min(buckets, 1L << 28);
+        this.table = new long[(int) buckets * 4];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Marks the start of a new search, entries of older searches
+     * are then replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Empties the table, this must not run concurrently with a search
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * Looks up a position
+     * @param key The position key
+     * @return The packed entry, or {@code 0} if the position is not stored
+     */
+    public long probe(long key) {
+        int index = (int) key & bucketMask;
+        index <<= 2;
+        for(int slot = index; slot < index + 4; slot += 2) {
+            long data = (long) SLOTS.getOpaque(table, slot + 1);
+            if(data != 0 && ((long) SLOTS.getOpaque(table, slot) ^ data) == key) return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result
+     * @param key The position key
+     * @param move The best move, or {@link com.spiritlight.chess.game.Move#NONE}
+     * @param score The score, must fit in 16 bits
+     * @param depth The depth searched, from 0 to 255
+     * @param bound One of {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int generation = this.generation;
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (depth & 0xFF) << 32
+                | (long) bound << 40
+                | (long) generation << 42;
+        int slot = ((int) key & bucketMask) << 2;
+        long stored = (long) SLOTS.getOpaque(table, slot + 1);
+        boolean samePosition = stored != 0 && ((long) SLOTS.getOpaque(table, slot) ^ stored) == key;
+        // Keep the deeper result of the current search in the first slot
+        if(!samePosition && stored != 0 && depth(stored) > depth && generation(stored) == generation) {
+            slot += 2;
+        }
+        SLOTS.setOpaque(table, slot, key ^ data);
+        SLOTS.setOpaque(table, slot + 1, data);
+    }
+
+    /**
+     * Estimates how full the table is with entries of the current search
+     * @return The estimate, in permille
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, table.length / 2);
+        int generation = this.generation;
+        int used = 0;
+        for(int i = 0; i < sample; i++) {
+            long data = (long) SLOTS.getOpaque(table, i * 2 + 1);
+            if(data != 0 && generation(data) == generation) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return The capacity of this table, in entries
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 42) & 0xFF;
+    }
+}
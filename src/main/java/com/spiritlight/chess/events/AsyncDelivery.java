@@ -0,0 +1,138 @@
+package com.spiritlight.chess.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded buffer of the events of a single bus, drained in batches on an executor.
+ * At most one drain of a buffer runs at a time, which keeps the events of a board
+ * in the order they were fired. A buffer is closed before its bus switches to
+ * another delivery, and is fully delivered before the switch completes.
+ */
+final class AsyncDelivery {
+    private final EventBus bus;
+    private final ArrayBlockingQueue<Event> buffer;
+    private final BackpressurePolicy policy;
+    private final int batchSize;
+    private final Executor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final Object lock = new Object();
+    private boolean closed;
+    /**
+     * Thread running the current drain, if any
+     */
+    private volatile Thread drainer;
+
+    AsyncDelivery(EventBus bus, int capacity, BackpressurePolicy policy, int batchSize, Executor executor) {
+        if(capacity < 1 || batchSize < 1) throw new IllegalArgumentException("Capacity and batch size must be positive");
+        this.bus = bus;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Buffers an event
+     * @return {@code false} if this buffer is closed, the event is then not taken
+     */
+    boolean enqueue(Event e) {
+        synchronized(lock) {
+            // Listeners of a closing buffer may still fire, their events keep their place
+            if(closed && !isDelivering()) return false;
+            offer(e);
+        }
+        schedule();
+        return true;
+    }
+
+    private void offer(Event e) {
+        switch(policy) {
+            case BLOCK -> {
+                try {
+                    buffer.put(e);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case DROP_NEWEST -> {
+                if(!buffer.offer(e)) dropped.increment();
+            }
+            case DROP_OLDEST -> {
+                while(!buffer.offer(e)) {
+                    if(buffer.poll() != null) dropped.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops taking events, then waits until every buffered event is delivered
+     * @throws IllegalStateException if called while delivering events of this buffer
+     */
+    void close() {
+        if(isDelivering()) {
+            throw new IllegalStateException("Cannot switch the delivery of a bus from its own listeners");
+        }
+        synchronized(lock) {
+            closed = true;
+        }
+        boolean interrupted = false;
+        synchronized(this) {
+            while(!buffer.isEmpty() || scheduled.get()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * @return Whether the current thread is delivering events of this buffer
+     */
+    boolean isDelivering() {
+        return Thread.currentThread() == drainer;
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void schedule() {
+        if(scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Delivers one batch, then yields to the drains of other boards
+     */
+    private void drain() {
+        List<Event> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        drainer = Thread.currentThread();
+        try {
+            buffer.drainTo(batch, batchSize);
+            if(!batch.isEmpty()) bus.deliver(batch);
+        } finally {
+            drainer = null;
+            scheduled.set(false);
+            // Events fired after the drain but before the flag cleared
+            if(!buffer.isEmpty()) {
+                schedule();
+            } else {
+                synchronized(this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
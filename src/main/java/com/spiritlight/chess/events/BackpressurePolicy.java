@@ -0,0 +1,20 @@
+package com.spiritlight.chess.events;
+
+/**
+ * What an asynchronous {@link EventBus} does with a new event once its buffer is full
+ */
+public enum BackpressurePolicy {
+    /**
+     * The firing thread waits until the buffer has room.
+     * Listeners firing events on their own board may then deadlock.
+     */
+    BLOCK,
+    /**
+     * The new event is discarded
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest buffered event is discarded to make room
+     */
+    DROP_OLDEST
+}
@@ -0,0 +1,237 @@
+package com.spiritlight.chess.events;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Listeners of the events of a single board.
+ * <br /> <br />
+ * Firing an event only reaches the listeners registered on this bus, followed
+ * by the global listeners of the event type (such as
+ * {@link CaptureEvent#addListener(Object)}), so its cost does not grow with
+ * the number of boards in play. Adding or removing a listener only copies
+ * the listeners of this bus.
+ * <p>
+ * Events are delivered on the firing thread unless {@link #enableAsync(int, BackpressurePolicy)
+ * asynchronous delivery} is enabled, in which case they are buffered and delivered
+ * in batches on an executor, in the order they were fired. The board itself
+ * still applies captures and promotions right away.
+ */
+public final class EventBus {
+    /**
+     * Batch size used by {@link #enableAsync(int, BackpressurePolicy)}
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * A listener receiving events in batches, in the order they were fired.
+     * When delivery is synchronous, every batch holds a single event.
+     */
+    public interface BatchListener {
+        void onEvents(List<Event> events);
+    }
+
+    // Thread safety in case listeners come and go during a game
+    private final List<CaptureEvent.Listener> captureListeners = new CopyOnWriteArrayList<>();
+    private final List<PromotionEvent.Listener> promotionListeners = new CopyOnWriteArrayList<>();
+    private final List<GameEvent.Listener> updateListeners = new CopyOnWriteArrayList<>();
+    private final List<GameFinishEvent.Listener> finishListeners = new CopyOnWriteArrayList<>();
+    private final List<BatchListener> batchListeners = new CopyOnWriteArrayList<>();
+    private volatile @Nullable AsyncDelivery async;
+
+    /**
+     * Registers a listener for every listener interface it implements
+     * @param o The listener
+     * @return Whether the object implements any listener interface
+     */
+    public boolean addListener(Object o) {
+        boolean added = false;
+        if(o instanceof CaptureEvent.Listener listener) added = captureListeners.add(listener);
+        if(o instanceof PromotionEvent.Listener listener) added |= promotionListeners.add(listener);
+        if(o instanceof GameEvent.Listener listener) added |= updateListeners.add(listener);
+        if(o instanceof GameFinishEvent.Listener listener) added |= finishListeners.add(listener);
+        if(o instanceof BatchListener listener) added |= batchListeners.add(listener);
+        return added;
+    }
+
+    /**
+     * Unregisters a listener from every event it listens to
+     * @param o The listener
+     * @return Whether the listener was registered
+     */
+    public boolean removeListener(Object o) {
+        boolean removed = false;
+        if(o instanceof CaptureEvent.Listener listener) removed = captureListeners.remove(listener);
+        if(o instanceof PromotionEvent.Listener listener) removed |= promotionListeners.remove(listener);
+        if(o instanceof GameEvent.Listener listener) removed |= updateListeners.remove(listener);
+        if(o instanceof GameFinishEvent.Listener listener) removed |= finishListeners.remove(listener);
+        if(o instanceof BatchListener listener) removed |= batchListeners.remove(listener);
+        return removed;
+    }
+
+    /**
+     * Removes all listeners of this bus
+     */
+    public void clear() {
+        captureListeners.clear();
+        promotionListeners.clear();
+        updateListeners.clear();
+        finishListeners.clear();
+        batchListeners.clear();
+    }
+
+    /**
+     * Delivers events asynchronously on a shared pool of daemon threads
+     * @param capacity The number of events buffered before the policy applies
+     * @param policy What to do with events fired while the buffer is full
+     * @see #enableAsync(int, BackpressurePolicy, int, Executor)
+     */
+    public void enableAsync(int capacity, BackpressurePolicy policy) {
+        enableAsync(capacity, policy, DEFAULT_BATCH_SIZE, Workers.EXECUTOR);
+    }
+
+    /**
+     * Delivers events asynchronously. Events are buffered in a bounded ring,
+     * and delivered by at most one task of the executor at a time.
+     * @param capacity The number of events buffered before the policy applies
+     * @param policy What to do with events fired while the buffer is full
+     * @param batchSize The maximum number of events delivered per batch
+     * @param executor The executor to deliver events on
+     * @throws IllegalStateException if called by a listener of this bus
+     * while it delivers asynchronously
+     */
+    public void enableAsync(int capacity, BackpressurePolicy policy, int batchSize, Executor executor) {
+        AsyncDelivery delivery = new AsyncDelivery(this, capacity, policy, batchSize, executor);
+        checkNotDelivering();
+        synchronized(this) {
+            AsyncDelivery old = this.async;
+            if(old != null) old.close();
+            this.async = delivery;
+        }
+    }
+
+    /**
+     * Delivers events on the firing thread again. Events buffered so far
+     * are delivered before this returns, so that later events cannot
+     * overtake them.
+     * @throws IllegalStateException if called by a listener of this bus
+     * while it delivers asynchronously
+     */
+    public void disableAsync() {
+        checkNotDelivering();
+        synchronized(this) {
+            AsyncDelivery old = this.async;
+            if(old == null) return;
+            old.close();
+            this.async = null;
+        }
+    }
+
+    /**
+     * Listeners cannot wait for their own delivery to finish, and the bus is
+     * locked while switching, so they are turned away before taking the lock
+     */
+    private void checkNotDelivering() {
+        AsyncDelivery async = this.async;
+        if(async != null && async.isDelivering()) {
+            throw new IllegalStateException("Cannot switch the delivery of a bus from its own listeners");
+        }
+    }
+
+    public boolean isAsync() {
+        return async != null;
+    }
+
+    /**
+     * @return The number of events discarded by the backpressure policy
+     * since asynchronous delivery was last enabled
+     */
+    public long getDroppedCount() {
+        AsyncDelivery async = this.async;
+        return async == null ? 0 : async.getDroppedCount();
+    }
+
+    /**
+     * Notifies the listeners of this bus, then the global ones,
+     * either right away or asynchronously
+     * @param e The event
+     * @throws IllegalArgumentException if the event is of no known type
+     */
+    public void fire(Event e) {
+        if(!(e instanceof CaptureEvent || e instanceof PromotionEvent || e instanceof GameEvent)) {
+            throw new IllegalArgumentException("Cannot fire " + e.getClass().getCanonicalName() + " on a board");
+        }
+        AsyncDelivery async = this.async;
+        while(async != null && !async.enqueue(e)) {
+            // The delivery is being switched, wait until it is
+            synchronized(this) {
+                async = this.async;
+            }
+        }
+        if(async == null) {
+            dispatch(e);
+            if(!batchListeners.isEmpty()) {
+                List<Event> batch = Collections.singletonList(e);
+                for(BatchListener listener : batchListeners) {
+                    listener.onEvents(batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers a batch of buffered events
+     */
+    void deliver(List<Event> events) {
+        for(Event e : events) {
+            dispatch(e);
+        }
+        if(!batchListeners.isEmpty()) {
+            List<Event> batch = Collections.unmodifiableList(events);
+            for(BatchListener listener : batchListeners) {
+                listener.onEvents(batch);
+            }
+        }
+    }
+
+    private void dispatch(Event e) {
+        if(e instanceof CaptureEvent ce) {
+            for(CaptureEvent.Listener listener : captureListeners) {
+                listener.onCapture(ce);
+            }
+            CaptureEvent.fire(ce);
+        } else if(e instanceof PromotionEvent pe) {
+            for(PromotionEvent.Listener listener : promotionListeners) {
+                listener.onPromote(pe);
+            }
+            PromotionEvent.fire(pe);
+        } else if(e instanceof GameFinishEvent gfe) {
+            for(GameFinishEvent.Listener listener : finishListeners) {
+                listener.onFinish(gfe);
+            }
+            GameFinishEvent.fire(gfe);
+        } else if(e instanceof GameEvent ge) {
+            for(GameEvent.Listener listener : updateListeners) {
+                listener.onUpdate(ge);
+            }
+            GameEvent.fire(ge);
+        }
+    }
+
+    /**
+     * Shared delivery threads, only started once a bus goes asynchronous
+     */
+    private static final class Workers {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "Event delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
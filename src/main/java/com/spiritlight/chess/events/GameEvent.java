@@ -1,8 +1,10 @@
 package com.spiritlight.chess.events;
 
 import com.spiritlight.chess.game.AbstractBoard;
+import com.spiritlight.chess.game.PositionSnapshot;
 import com.spiritlight.chess.pieces.AbstractPiece;
 import com.spiritlight.chess.utils.Location;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
@@ -12,6 +14,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class GameEvent extends Event {
     protected final AbstractBoard board;
     protected final Map<Location, AbstractPiece> layout;
+    protected final PositionSnapshot snapshot;
 
     /**
      * Creates a new game event
@@ -21,6 +24,19 @@ public class GameEvent extends Event {
     public GameEvent(AbstractBoard board, Map<Location, AbstractPiece> layout) {
         this.board = board;
         this.layout = layout;
+        this.snapshot = null;
+    }
+
+    /**
+     * Creates a new game event carrying an immutable position,
+     * which listeners may keep after the board has moved on
+     * @param board The board involved
+     * @param snapshot The current position
+     */
+    public GameEvent(AbstractBoard board, PositionSnapshot snapshot) {
+        this.board = board;
+        this.layout = null;
+        this.snapshot = snapshot;
     }
 
     public AbstractBoard getBoard() {
@@ -28,13 +44,24 @@ public class GameEvent extends Event {
     }
 
     /**
-     * Returns a view-only layout of the current pattern
+     * Returns a view-only layout of the current pattern. For events carrying
+     * a snapshot, the pieces are detached copies built from it.
      * @return An immutable map describing the current game layout
+     * @see PositionSnapshot#toPieceMap()
      */
     public Map<Location, AbstractPiece> getLayout() {
+        if(layout == null) return snapshot.toPieceMap();
         return Collections.unmodifiableMap(layout);
     }
 
+    /**
+     * @return The position at the time of the event, or {@code null}
+     * if the event was created from a layout
+     */
+    public @Nullable PositionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public interface Listener {
         void onUpdate(GameEvent event);
     }
@@ -1,9 +1,11 @@
 package com.spiritlight.chess.events;
 
 import com.spiritlight.chess.game.AbstractBoard;
+import com.spiritlight.chess.game.PositionSnapshot;
 import com.spiritlight.chess.pieces.AbstractPiece;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -11,6 +13,25 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 public class GameFinishEvent extends GameEvent {
     private final Side winner;
+    private final Reason reason;
+
+    /**
+     * How a game ended
+     */
+    public enum Reason {
+        /**
+         * A king was captured
+         */
+        KING_CAPTURED,
+        /**
+         * The side to move is in check and has no legal move
+         */
+        CHECKMATE,
+        /**
+         * The side to move is not in check and has no legal move, the game is drawn
+         */
+        STALEMATE
+    }
 
     /**
      * Creates a new game event
@@ -21,12 +42,45 @@ public class GameFinishEvent extends GameEvent {
     public GameFinishEvent(AbstractBoard board, Map<Location, AbstractPiece> layout, Side winner) {
         super(board, layout);
         this.winner = winner;
+        this.reason = Reason.KING_CAPTURED;
     }
 
-    public Side getWinner() {
+    /**
+     * Creates a new game event
+     *
+     * @param board    The board involved
+     * @param snapshot The final position
+     * @param winner   The side that won
+     */
+    public GameFinishEvent(AbstractBoard board, PositionSnapshot snapshot, Side winner) {
+        this(board, snapshot, winner, Reason.KING_CAPTURED);
+    }
+
+    /**
+     * Creates a new game event
+     *
+     * @param board    The board involved
+     * @param snapshot The final position
+     * @param winner   The side that won, or {@code null} for a draw
+     * @param reason   How the game ended
+     */
+    public GameFinishEvent(AbstractBoard board, PositionSnapshot snapshot, @Nullable Side winner, Reason reason) {
+        super(board, snapshot);
+        this.winner = winner;
+        this.reason = reason;
+    }
+
+    /**
+     * @return The side that won, or {@code null} for a draw
+     */
+    public @Nullable Side getWinner() {
         return winner;
     }
 
+    public Reason getReason() {
+        return reason;
+    }
+
     public interface Listener {
         void onFinish(GameFinishEvent e);
     }
@@ -1,12 +1,16 @@
 package com.spiritlight.chess.game;
 
 import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.events.Event;
+import com.spiritlight.chess.events.EventBus;
 import com.spiritlight.chess.events.PromotionEvent;
 import com.spiritlight.chess.pieces.AbstractPiece;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
 
 public abstract class AbstractBoard implements CaptureEvent.Listener, PromotionEvent.Listener {
+    private final EventBus eventBus = new EventBus();
+
     /**
      * Moves a piece from a location to another
      * @param side The side to make a move
@@ -22,16 +26,49 @@ public abstract class AbstractBoard implements CaptureEvent.Listener, PromotionE
     public abstract boolean hasPiece(Location source);
 
     /**
-     * Finalizes the board, this will no longer listen to any events,
-     * and references of the board will be removed.
+     * Registers a listener to the events of this board only
+     * @param listener The listener, implementing any of the event listener interfaces
+     * @return Whether the listener was registered
+     * @see EventBus#addListener(Object)
+     */
+    public boolean addListener(Object listener) {
+        return eventBus.addListener(listener);
+    }
+
+    public boolean removeListener(Object listener) {
+        return eventBus.removeListener(listener);
+    }
+
+    /**
+     * @return The listeners of this board, where delivery can be made asynchronous
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Fires an event of this board. Captures and promotions are applied
+     * to the board first, then its listeners and the global listeners
+     * are notified.
+     * @param event The event
+     */
+    public void fire(Event event) {
+        if(event instanceof CaptureEvent ce) {
+            onCapture(ce);
+        } else if(event instanceof PromotionEvent pe) {
+            onPromote(pe);
+        }
+        eventBus.fire(event);
+    }
+
+    /**
+     * Finalizes the board, and references of the board will be removed.
      *
-     * @apiNote Even though this implementation automatically removes
-     * itself from listening to captures and promotions, one often should
-     * be cleaning up the board to free any references from it.
+     * @apiNote Listeners of the board are kept, so that the events of the
+     * move finishing the game still reach them, and are released along with
+     * the board itself.
      */
     protected void finish() {
-        CaptureEvent.removeListener(this);
-        PromotionEvent.removeListener(this);
     }
 
     /**
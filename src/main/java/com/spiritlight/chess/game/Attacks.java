@@ -0,0 +1,230 @@
+package com.spiritlight.chess.game;
+
+/**
+ * Attack masks for an 8x8 board, with bit {@code y * 8 + x}
+ * standing for the square at {@code (x, y)}.
+ * <p>
+ * Every query is a table lookup. Knights, kings and pawns use tables computed
+ * once per square. Sliding pieces use magic bitboards: the occupied squares
+ * relevant to a square are hashed by a multiplication into an index of the
+ * attacks precomputed for that occupancy.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    /**
+     * Squares attacked by a pawn, indexed by {@code side * 64 + square}
+     */
+    private static final long[] PAWN = new long[128];
+    /**
+     * Squares strictly between two squares of a line, indexed by {@code from * 64 + to}
+     */
+    private static final long[] BETWEEN = new long[64 * 64];
+    /**
+     * The whole line through two squares of a line, indexed by {@code from * 64 + to}
+     */
+    private static final long[] LINE = new long[64 * 64];
+
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private static final long[] BISHOP_MASK = new long[64];
+    /**
+     * Found by a search over sparse xorshift64* numbers, each maps every relevant
+     * occupancy of its square to an index without harmful collisions
+     */
+    private static final long[] BISHOP_MAGIC = {
+            0x40106000A1160020L, 0x0020010250810120L, 0x2010010220280081L, 0x002806004050C040L,
+            0x0002021018000000L, 0x2001112010000400L, 0x0881010120218080L, 0x1030820110010500L,
+            0x0000120222042400L, 0x2000020404040044L, 0x8000480094208000L, 0x0003422A02000001L,
+            0x000A220210100040L, 0x8004820202226000L, 0x0018234854100800L, 0x0100004042101040L,
+            0x0004001004082820L, 0x0010000810010048L, 0x1014004208081300L, 0x2080818802044202L,
+            0x0040880C00A00100L, 0x0080400200522010L, 0x0001000188180B04L, 0x0080249202020204L,
+            0x1004400004100410L, 0x00013100A0022206L, 0x2148500001040080L, 0x4241080011004300L,
+            0x4020848004002000L, 0x10101380D1004100L, 0x0008004422020284L, 0x01010A1041008080L,
+            0x0808080400082121L, 0x0808080400082121L, 0x0091128200100C00L, 0x0202200802010104L,
+            0x8C0A020200440085L, 0x01A0008080B10040L, 0x0889520080122800L, 0x100902022202010AL,
+            0x04081A0816002000L, 0x0000681208005000L, 0x8170840041008802L, 0x0A00004200810805L,
+            0x0830404408210100L, 0x2602208106006102L, 0x1048300680802628L, 0x2602208106006102L,
+            0x0602010120110040L, 0x0941010801043000L, 0x000040440A210428L, 0x0008240020880021L,
+            0x0400002012048200L, 0x00AC102001210220L, 0x0220021002009900L, 0x84440C080A013080L,
+            0x0001008044200440L, 0x0004C04410841000L, 0x2000500104011130L, 0x1A0C010011C20229L,
+            0x0044800112202200L, 0x0434804908100424L, 0x0300404822C08200L, 0x48081010008A2A80L
+    };
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] BISHOP_ATTACKS;
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = {
+            0x0A80004000801220L, 0x8040004010002008L, 0x2080200010008008L, 0x1100100008210004L,
+            0xC200209084020008L, 0x2100010004000208L, 0x0400081000822421L, 0x0200010422048844L,
+            0x0800800080400024L, 0x0001402000401000L, 0x3000801000802001L, 0x4400800800100083L,
+            0x0904802402480080L, 0x4040800400020080L, 0x0018808042000100L, 0x4040800080004100L,
+            0x0040048001458024L, 0x00A0004000205000L, 0x3100808010002000L, 0x4825010010000820L,
+            0x5004808008000401L, 0x2024818004000A00L, 0x0005808002000100L, 0x2100060004806104L,
+            0x0080400880008421L, 0x4062220600410280L, 0x010A004A00108022L, 0x0000100080080080L,
+            0x0021000500080010L, 0x0044000202001008L, 0x0000100400080102L, 0xC020128200040545L,
+            0x0080002000400040L, 0x0000804000802004L, 0x0000120022004080L, 0x010A386103001001L,
+            0x9010080080800400L, 0x8440020080800400L, 0x0004228824001001L, 0x000000490A000084L,
+            0x0080002000504000L, 0x200020005000C000L, 0x0012088020420010L, 0x0010010080080800L,
+            0x0085001008010004L, 0x0002000204008080L, 0x0040413002040008L, 0x0000304081020004L,
+            0x0080204000800080L, 0x3008804000290100L, 0x1010100080200080L, 0x2008100208028080L,
+            0x5000850800910100L, 0x8402019004680200L, 0x0120911028020400L, 0x0000008044010200L,
+            0x0020850200244012L, 0x0020850200244012L, 0x0000102001040841L, 0x140900040A100021L,
+            0x000200282410A102L, 0x000200282410A102L, 0x000200282410A102L, 0x4048240043802106L,
+    };
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] ROOK_ATTACKS;
+
+    static {
+        int[][] knight = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] king = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for(int square = 0; square < 64; square++) {
+            int x = square & 7;
+            int y = square >>> 3;
+            KNIGHT[square] = mask(x, y, knight);
+            KING[square] = mask(x, y, king);
+            PAWN[square] = mask(x, y, new int[][]{{-1, 1}, {1, 1}});
+            PAWN[64 + square] = mask(x, y, new int[][]{{-1, -1}, {1, -1}});
+        }
+        BISHOP_ATTACKS = initMagics(BISHOP_DIRECTIONS, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET);
+        ROOK_ATTACKS = initMagics(ROOK_DIRECTIONS, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET);
+        for(int from = 0; from < 64; from++) {
+            for(int[][] directions : new int[][][]{BISHOP_DIRECTIONS, ROOK_DIRECTIONS}) {
+                for(int[] direction : directions) {
+                    long ray = slide(from, 0, direction[0], direction[1]);
+                    for(long targets = ray; targets != 0; targets &= targets - 1) {
+                        int to = Long.numberOfTrailingZeros(targets);
+                        BETWEEN[from << 6 | to] = ray & ~slide(to, 0, direction[0], direction[1]) & ~(1L << to);
+                        LINE[from << 6 | to] = ray | slide(from, 0, -direction[0], -direction[1]) | 1L << from;
+                    }
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+
+    }
+
+    private static long mask(int x, int y, int[][] offsets) {
+        long ret = 0;
+        for(int[] offset : offsets) {
+            int tx = x + offset[0];
+            int ty = y + offset[1];
+            if(tx < 0 || tx > 7 || ty < 0 || ty > 7) continue;
+            ret |= 1L << (ty << 3 | tx);
+        }
+        return ret;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param side The side ordinal of the pawn
+     * @param square The square of the pawn
+     * @return The squares a pawn on the square attacks
+     */
+    public static long pawn(int side, int square) {
+        return PAWN[side << 6 | square];
+    }
+
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square]) >>> BISHOP_SHIFT[square]);
+        return BISHOP_ATTACKS[BISHOP_OFFSET[square] + index];
+    }
+
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square]) >>> ROOK_SHIFT[square]);
+        return ROOK_ATTACKS[ROOK_OFFSET[square] + index];
+    }
+
+    public static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    /**
+     * @param from The first square
+     * @param to The second square
+     * @return The squares strictly between two squares sharing a rank, file or
+     * diagonal, or {@code 0} if they share none
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from << 6 | to];
+    }
+
+    /**
+     * @param from The first square
+     * @param to The second square
+     * @return The whole rank, file or diagonal through both squares,
+     * or {@code 0} if they share none
+     */
+    public static long line(int from, int to) {
+        return LINE[from << 6 | to];
+    }
+
+    /**
+     * Fills the attacks of every relevant occupancy of every square,
+     * the tables of all squares are packed into one array
+     * @return The attack table
+     */
+    private static long[] initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for(int square = 0; square < 64; square++) {
+            // Edge squares never block a ray, unless the piece stands on that edge
+            int x = square & 7;
+            int y = square >>> 3;
+            long edges = ((0x0101010101010101L | 0x8080808080808080L) & ~(0x0101010101010101L << x))
+                    | ((0xFFL | 0xFF00000000000000L) & ~(0xFFL << (y << 3)));
+            long mask = 0;
+            for(int[] direction : directions) mask |= slide(square, 0, direction[0], direction[1]);
+            masks[square] = mask & ~edges;
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[size];
+        boolean[] filled = new boolean[size];
+        for(int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            // Every subset of the mask, see the Carry-Rippler trick
+            long occupied = 0;
+            do {
+                long attacks = 0;
+                for(int[] direction : directions) attacks |= slide(square, occupied, direction[0], direction[1]);
+                int index = offsets[square] + (int) ((occupied * magics[square]) >>> shifts[square]);
+                if(filled[index] && table[index] != attacks) throw new IllegalStateException("Magic collision on square " + square);
+                filled[index] = true;
+                table[index] = attacks;
+                occupied = (occupied - mask) & mask;
+            } while(occupied != 0);
+        }
+        return table;
+    }
+
+    /**
+     * Scans a ray, the first occupied square is included
+     */
+    private static long slide(int square, long occupied, int dx, int dy) {
+        long ret = 0;
+        int x = (square & 7) + dx;
+        int y = (square >>> 3) + dy;
+        while(x >= 0 && x <= 7 && y >= 0 && y <= 7) {
+            long bit = 1L << (y << 3 | x);
+            ret |= bit;
+            if((occupied & bit) != 0) break;
+            x += dx;
+            y += dy;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,216 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes positions and move sequences in a compact binary form,
+ * straight between a board and a {@link ByteBuffer}.
+ * <br /> <br />
+ * A position is laid out as follows, multibyte values in the byte order of the buffer:
+ * <ul>
+ *     <li>1 byte, the maximum x coordinate in the high and y in the low nibble</li>
+ *     <li>1 byte, the castling rights in the high nibble and the side to move in the lowest bit, set for black</li>
+ *     <li>One nibble per square holding its piece code (see {@link PieceType#code(Side)}), the even square
+ *     of each pair in the low nibble, 32 bytes on a classic board</li>
+ *     <li>1 byte, the en passant square or {@code 0xFF}</li>
+ *     <li>2 bytes each, the halfmove clock and the fullmove number</li>
+ * </ul>
+ * That is 39 bytes for a classic board. A sequence of moves is a 2-byte count
+ * followed by the 16-bit encoding of each move, see {@link Move}; a game is
+ * written as its starting position followed by its moves.
+ * <p>
+ * Neither direction allocates, boards are written from and read into their
+ * storage directly. Boards up to 16x16 squares are supported.
+ */
+public final class BinaryCodec {
+    private static final int NO_EN_PASSANT = 0xFF;
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * @param x The maximum x coordinate of the board
+     * @param y The maximum y coordinate of the board
+     * @return The number of bytes a position of a board of that size takes
+     */
+    public static int positionSize(int x, int y) {
+        return 7 + ((x + 1) * (y + 1) + 1) / 2;
+    }
+
+    /**
+     * @param count The number of moves
+     * @return The number of bytes a sequence of that many moves takes
+     */
+    public static int movesSize(int count) {
+        return 2 + 2 * count;
+    }
+
+    /**
+     * Writes the position of a board
+     * @param board The board
+     * @param out The buffer to write to
+     * @throws IllegalArgumentException if the board is larger than 16x16
+     * or a move counter does not fit in 16 bits
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void writePosition(BitBoard board, ByteBuffer out) {
+        writeHeader(out, board.x, board.y, board.sideToMove, board.castling);
+        byte[] squares = board.squares;
+        int last = squares.length - 1;
+        for(int square = 0; square < last; square += 2) {
+            out.put((byte) (squares[square] | squares[square + 1] << 4));
+        }
+        if((squares.length & 1) != 0) out.put(squares[last]);
+        writeTrailer(out, board.enPassant, board.halfmoveClock, board.fullmoveNumber);
+    }
+
+    /**
+     * Writes a snapshot of a position
+     * @param snapshot The snapshot
+     * @param out The buffer to write to
+     * @throws IllegalArgumentException if the board is larger than 16x16
+     * or a move counter does not fit in 16 bits
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void writePosition(PositionSnapshot snapshot, ByteBuffer out) {
+        writeHeader(out, snapshot.getX(), snapshot.getY(), snapshot.getSideToMove(), snapshot.getCastlingRights());
+        int last = snapshot.size() - 1;
+        for(int square = 0; square < last; square += 2) {
+            out.put((byte) (snapshot.getPieceCode(square) | snapshot.getPieceCode(square + 1) << 4));
+        }
+        if((snapshot.size() & 1) != 0) out.put((byte) snapshot.getPieceCode(last));
+        writeTrailer(out, snapshot.getEnPassantSquare(), snapshot.getHalfmoveClock(), snapshot.getFullmoveNumber());
+    }
+
+    /**
+     * Replaces the position of a board by one read from a buffer, the
+     * position must have been written from a board of the same size.
+     * No events are fired.
+     * @param in The buffer to read from
+     * @param board The board to overwrite
+     * @throws IllegalArgumentException if the position is malformed or of another
+     * board size, the board is then left empty
+     * @throws BufferUnderflowException if the buffer ends within the position,
+     * the board is then left empty
+     */
+    public static void readPosition(ByteBuffer in, BitBoard board) {
+        board.clearPosition();
+        try {
+            readInto(in, board);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            board.clearPosition();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a sequence of moves
+     * @param moves The array holding the moves
+     * @param offset The index of the first move
+     * @param count The number of moves
+     * @param out The buffer to write to
+     * @throws IllegalArgumentException if there are more than 65535 moves
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void writeMoves(int[] moves, int offset, int count, ByteBuffer out) {
+        if(count > MAX_COUNT) throw new IllegalArgumentException("Too many moves: " + count);
+        out.putShort((short) count);
+        for(int i = offset; i < offset + count; i++) {
+            out.putShort((short) moves[i]);
+        }
+    }
+
+    /**
+     * Reads a sequence of moves
+     * @param in The buffer to read from
+     * @param moves The array to store the moves in
+     * @param offset The index to store the first move at
+     * @return The number of moves read
+     * @throws IllegalArgumentException if the moves do not fit in the array,
+     * nothing is read past the count then
+     * @throws BufferUnderflowException if the buffer ends within the moves
+     */
+    public static int readMoves(ByteBuffer in, int[] moves, int offset) {
+        int count = in.getShort() & MAX_COUNT;
+        if(offset + count > moves.length) throw new IllegalArgumentException(count + " moves do not fit in the array");
+        for(int i = offset; i < offset + count; i++) {
+            moves[i] = in.getShort() & MAX_COUNT;
+        }
+        return count;
+    }
+
+    /**
+     * Reads a sequence of moves and plays each onto a board, as with
+     * {@link BitBoard#playMove(int)}. Reading the starting position of
+     * a game and then its moves leaves the board at the end of the game.
+     * @param in The buffer to read from
+     * @param board The board, its moves are not checked for legality
+     * @return The number of moves played
+     * @throws IllegalStateException if the board is not 8x8
+     * @throws BufferUnderflowException if the buffer ends within the moves
+     */
+    public static int playMoves(ByteBuffer in, BitBoard board) {
+        int count = in.getShort() & MAX_COUNT;
+        for(int i = 0; i < count; i++) {
+            board.playMove(in.getShort() & MAX_COUNT);
+        }
+        return count;
+    }
+
+    private static void writeHeader(ByteBuffer out, int x, int y, Side side, int castling) {
+        if(x > 15 || y > 15) throw new IllegalArgumentException("Boards larger than 16x16 are not supported");
+        out.put((byte) (x << 4 | y));
+        out.put((byte) (castling << 4 | (side == Side.BLACK ? 1 : 0)));
+    }
+
+    private static void writeTrailer(ByteBuffer out, int enPassant, int halfmoveClock, int fullmoveNumber) {
+        if(halfmoveClock > MAX_COUNT || fullmoveNumber > MAX_COUNT) {
+            throw new IllegalArgumentException("Move counters do not fit in 16 bits");
+        }
+        out.put((byte) (enPassant < 0 ? NO_EN_PASSANT : enPassant));
+        out.putShort((short) halfmoveClock);
+        out.putShort((short) fullmoveNumber);
+    }
+
+    private static void readInto(ByteBuffer in, BitBoard board) {
+        int size = in.get() & 0xFF;
+        if(size >>> 4 != board.x || (size & 0xF) != board.y) {
+            throw new IllegalArgumentException("Position of a " + ((size >>> 4) + 1) + "x" + ((size & 0xF) + 1)
+                    + " board does not fit a " + (board.x + 1) + "x" + (board.y + 1) + " board");
+        }
+        int flags = in.get() & 0xFF;
+
+        int length = board.squares.length;
+        for(int square = 0; square < length; square += 2) {
+            int pair = in.get() & 0xFF;
+            setCode(board, square, pair & 0xF);
+            if(square + 1 < length) setCode(board, square + 1, pair >>> 4);
+        }
+        board.setSideToMove((flags & 1) != 0 ? Side.BLACK : Side.WHITE);
+        board.updateCastling(flags >>> 4 & board.homeCastlingRights());
+
+        int enPassant = in.get() & 0xFF;
+        if(enPassant != NO_EN_PASSANT) {
+            if(enPassant >= length) throw new IllegalArgumentException("Invalid en passant square " + enPassant);
+            if(board.packed) board.updateEnPassant(enPassant);
+        }
+        board.halfmoveClock = in.getShort() & MAX_COUNT;
+        int fullmoveNumber = in.getShort() & MAX_COUNT;
+        if(fullmoveNumber < 1) throw new IllegalArgumentException("Invalid fullmove number " + fullmoveNumber);
+        board.fullmoveNumber = fullmoveNumber;
+    }
+
+    private static void setCode(BitBoard board, int square, int code) {
+        if(code == PieceType.EMPTY) return;
+        int type = code & 7;
+        if(type == 0 || type > PieceType.KING.ordinal() + 1) {
+            throw new IllegalArgumentException("Invalid piece code " + code + " on square " + square);
+        }
+        board.set(square, code);
+    }
+}
@@ -0,0 +1,909 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.events.GameEvent;
+import com.spiritlight.chess.events.GameFinishEvent;
+import com.spiritlight.chess.events.PromotionEvent;
+import com.spiritlight.chess.pieces.AbstractPiece;
+import com.spiritlight.chess.pieces.King;
+import com.spiritlight.chess.pieces.Pawn;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.pieces.Queen;
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.PromotionRule;
+import com.spiritlight.chess.utils.Side;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A board implementation storing its position as one 64-bit mask
+ * per piece type and side, so that lookups are a single mask test.
+ * <br /> <br />
+ * Every square also holds a compact piece code (see {@link PieceType#code(Side)}),
+ * and the piece objects themselves are only created once they are requested via
+ * {@link #getPiece(Location)}.
+ * <p>
+ * Masks only fit a board of 8x8, that is, a board whose maximum
+ * {@code x} and {@code y} are both {@code 7}. Any other size falls back to
+ * the per-square codes, which keeps the same contract at the cost of
+ * scanning squares where a mask would have been used.
+ * <p>
+ * Unlike {@link GameBoard}, pieces must be placed inside the board.
+ */
+public class BitBoard extends AbstractBoard {
+    /**
+     * Number of piece types per side
+     */
+    public static final int TYPES = 6;
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * Castling rights kept when a piece leaves or lands on a square
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 0xF);
+        CASTLING_MASK[0] = ~WHITE_QUEEN_SIDE & 0xF;
+        CASTLING_MASK[4] = ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE) & 0xF;
+        CASTLING_MASK[7] = ~WHITE_KING_SIDE & 0xF;
+        CASTLING_MASK[56] = ~BLACK_QUEEN_SIDE & 0xF;
+        CASTLING_MASK[60] = ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE) & 0xF;
+        CASTLING_MASK[63] = ~BLACK_KING_SIDE & 0xF;
+    }
+
+    protected final int x;
+    protected final int y;
+    protected UUID id;
+    /**
+     * Width of a rank, in squares
+     */
+    final int width;
+    /**
+     * Whether this board is 8x8 and maintains {@link #bitboards}
+     */
+    final boolean packed;
+    /**
+     * Piece code of each square, indexed by {@code y * width + x}
+     */
+    final byte[] squares;
+    /**
+     * Piece objects, created lazily from {@link #squares}
+     */
+    final AbstractPiece[] pieces;
+    /**
+     * One mask per side and piece type, indexed by {@code side * TYPES + type}.
+     * Empty unless {@link #packed}.
+     */
+    final long[] bitboards;
+    /**
+     * All pieces of a side, indexed by side ordinal.
+     * Empty unless {@link #packed}.
+     */
+    final long[] occupancy;
+    /**
+     * Remaining castling rights, see {@link #WHITE_KING_SIDE} and others.
+     * Always {@code 0} unless {@link #packed}.
+     */
+    int castling;
+    /**
+     * Square a pawn may capture onto en passant, or {@code -1}
+     */
+    int enPassant = -1;
+    /**
+     * Side whose turn it is
+     */
+    Side sideToMove = Side.WHITE;
+    /**
+     * Number of half moves since the last capture or pawn move
+     */
+    int halfmoveClock;
+    /**
+     * Number of the current full move, starting at 1 and
+     * incremented after each move of black
+     */
+    int fullmoveNumber = 1;
+    /**
+     * Zobrist key of the position, see {@link #positionKey()}
+     */
+    long key;
+    /**
+     * Part of {@link #key} standing for the en passant square, {@code 0}
+     * unless a pawn can capture onto it
+     */
+    long enPassantKey;
+    /**
+     * Material and placement score from the view of white, see {@link #getPieceSquareScore()}
+     */
+    int score;
+    /**
+     * Snapshot of the current position, dropped on any change
+     */
+    private PositionSnapshot snapshot;
+    /**
+     * Promotion rule for this board
+     */
+    protected PromotionRule promotionRule;
+    /**
+     * Undo records of moves made via {@link #makeMove(int)}, each packing the move,
+     * the captured piece code and the state the move overwrote
+     */
+    private long[] undo = new long[32];
+    /**
+     * Piece objects of each undo record: the captured piece and the moving piece
+     */
+    private AbstractPiece[] undoPieces = new AbstractPiece[64];
+    private int undoSize = 0;
+
+    public BitBoard(int x, int y) {
+        this(x, y, UUID.randomUUID(), Collections.emptyMap(), PromotionRule.STANDARD);
+    }
+
+    /**
+     * Creates a new board
+     * @param x The maximum x coordinate
+     * @param y The maximum y coordinate
+     * @param id The board ID
+     * @param layout The pieces to place onto this board, those pieces
+     *               will be bound to this board
+     * @param promotionRule The promotion rule
+     * @throws IllegalArgumentException if any piece is outside the board
+     */
+    public BitBoard(int x, int y, UUID id, Map<Location, AbstractPiece> layout, PromotionRule promotionRule) {
+        if(x < 0 || y < 0) throw new IllegalArgumentException("Unable to construct a board with height or width less than 0");
+        this.x = x;
+        this.y = y;
+        this.id = id;
+        this.width = x + 1;
+        this.packed = x == 7 && y == 7;
+        this.squares = new byte[width * (y + 1)];
+        this.pieces = new AbstractPiece[squares.length];
+        this.bitboards = new long[packed ? 2 * TYPES : 0];
+        this.occupancy = new long[packed ? 2 : 0];
+        this.promotionRule = promotionRule;
+        for(Map.Entry<Location, AbstractPiece> entry : layout.entrySet()) {
+            if(entry.getValue() == null) continue;
+            int square = indexOf(entry.getKey());
+            if(square < 0) throw new IllegalArgumentException("Piece " + entry.getValue() + " is outside the board");
+            put(square, entry.getValue());
+        }
+        inferCastlingRights();
+    }
+
+    /**
+     * Copy constructor, listeners are not copied
+     */
+    private BitBoard(BitBoard source) {
+        this.x = source.x;
+        this.y = source.y;
+        this.id = GameRegistry.newId();
+        this.width = source.width;
+        this.packed = source.packed;
+        this.squares = source.squares.clone();
+        this.pieces = new AbstractPiece[squares.length];
+        this.bitboards = source.bitboards.clone();
+        this.occupancy = source.occupancy.clone();
+        this.castling = source.castling;
+        this.enPassant = source.enPassant;
+        this.sideToMove = source.sideToMove;
+        this.halfmoveClock = source.halfmoveClock;
+        this.fullmoveNumber = source.fullmoveNumber;
+        this.key = source.key;
+        this.enPassantKey = source.enPassantKey;
+        this.score = source.score;
+        this.promotionRule = source.promotionRule;
+    }
+
+    /**
+     * Creates a copy of this board for analysis. The copy has no listeners,
+     * and moves should be made via {@link #playMove(int)}.
+     * @return A detached copy of this board
+     */
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * Overwrites the position of this board with another one of the same size,
+     * without allocating. Piece objects of this board are discarded.
+     * @param source The board to copy from
+     * @throws IllegalArgumentException if the sizes differ
+     */
+    public void copyFrom(BitBoard source) {
+        if(source.x != x || source.y != y) throw new IllegalArgumentException("Cannot copy a board of a different size");
+        System.arraycopy(source.squares, 0, squares, 0, squares.length);
+        System.arraycopy(source.bitboards, 0, bitboards, 0, bitboards.length);
+        System.arraycopy(source.occupancy, 0, occupancy, 0, occupancy.length);
+        Arrays.fill(pieces, null);
+        castling = source.castling;
+        enPassant = source.enPassant;
+        sideToMove = source.sideToMove;
+        halfmoveClock = source.halfmoveClock;
+        fullmoveNumber = source.fullmoveNumber;
+        key = source.key;
+        enPassantKey = source.enPassantKey;
+        score = source.score;
+        snapshot = null;
+        clearHistory();
+    }
+
+    /**
+     * Creates a board holding the same position as the given board
+     * @param board The board to copy from
+     * @return A new board with the same layout and size
+     */
+    public static BitBoard of(GameBoard board) {
+        BitBoard ret = new BitBoard(board.getX(), board.getY());
+        for(Map.Entry<Location, AbstractPiece> entry : board.getPieceMap().entrySet()) {
+            AbstractPiece piece = entry.getValue();
+            if(piece == null) continue;
+            int square = ret.indexOf(entry.getKey());
+            if(square < 0) throw new IllegalArgumentException("Piece " + piece + " is outside the board");
+            // Only the codes are copied, pieces stay bound to their own board
+            ret.set(square, piece.getType().code(piece.getSide()));
+        }
+        ret.inferCastlingRights();
+        return ret;
+    }
+
+    /**
+     * Moves the piece
+     * @param side The side to make a move
+     * @param source The source location
+     * @param destination The destination location
+     * @return Whether the move succeeded
+     */
+    @Override
+    public boolean movePiece(Side side, Location source, Location destination) {
+        if(!hasPiece(source)) return false;
+        AbstractPiece piece = getPiece(source);
+        if(!piece.canMove(destination) || piece.getSide() != side) return false;
+        boolean capture = hasPiece(destination);
+        piece.move(destination); // Deferring return to fire updated event
+        this.updatePieces(side, indexOf(source), indexOf(destination), capture);
+        fire(new GameEvent(this, snapshot()));
+        return true;
+    }
+
+    /**
+     * Makes an encoded move so that it can be reverted by {@link #unmakeMove()}.
+     * The move is not checked for legality and no events are fired.
+     * <p>
+     * Making and unmaking a move costs a constant amount of work, and does not
+     * allocate once the undo stack has grown to the depth in use.
+     * @param move The move, as generated by {@link MoveGenerator}
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public void makeMove(int move) {
+        if(!packed) throw new IllegalStateException("Encoded moves are only available on 8x8 boards");
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int captured = Move.isEnPassant(move) ? to ^ 8 : to;
+        if(undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undoSize * 2);
+            undoPieces = Arrays.copyOf(undoPieces, undoSize * 4);
+        }
+        AbstractPiece piece = pieces[from];
+        boolean initialMove = piece != null && piece.isInitialMove();
+        undo[undoSize] = (move & 0xFFFFL)
+                | (long) squares[captured] << 16
+                | (long) castling << 20
+                | (long) (enPassant + 1) << 24
+                | (initialMove ? 1L : 0L) << 31
+                | (long) halfmoveClock << 32;
+        undoPieces[undoSize << 1] = pieces[captured];
+        undoPieces[undoSize << 1 | 1] = piece;
+        undoSize++;
+        playMove(move);
+        if(piece != null) piece.setInitialMove(false);
+    }
+
+    /**
+     * Reverts the last move made via {@link #makeMove(int)}
+     * @throws IllegalStateException if there is no move to revert
+     */
+    public void unmakeMove() {
+        if(undoSize == 0) throw new IllegalStateException("There is no move to unmake");
+        long record = undo[--undoSize];
+        AbstractPiece captured = undoPieces[undoSize << 1];
+        AbstractPiece piece = undoPieces[undoSize << 1 | 1];
+        undoPieces[undoSize << 1] = null;
+        undoPieces[undoSize << 1 | 1] = null;
+
+        int move = (int) (record & 0xFFFF);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        if(flags == Move.KING_CASTLE) {
+            relocate(to - 1, to + 1);
+        } else if(flags == Move.QUEEN_CASTLE) {
+            relocate(to + 1, to - 2);
+        }
+        if(Move.isPromotion(move)) {
+            int side = PieceType.sideOf(squares[to]);
+            clear(to);
+            set(from, PieceType.PAWN.code(side == 0 ? Side.WHITE : Side.BLACK));
+            pieces[from] = piece;
+        } else {
+            relocate(to, from);
+        }
+        int capturedCode = (int) (record >>> 16) & 0xF;
+        if(capturedCode != PieceType.EMPTY) {
+            int square = flags == Move.EN_PASSANT ? to ^ 8 : to;
+            set(square, capturedCode);
+            pieces[square] = captured;
+        }
+        updateCastling((int) (record >>> 20) & 0xF);
+        updateEnPassant((int) ((record >>> 24) & 0x7F) - 1);
+        setSideToMove(sideToMove.other());
+        halfmoveClock = (int) (record >>> 32);
+        if(sideToMove == Side.BLACK) fullmoveNumber--;
+        if(piece != null) piece.setInitialMove((record >>> 31 & 1) != 0);
+    }
+
+    /**
+     * @return The number of moves that can be reverted by {@link #unmakeMove()}
+     */
+    public int getHistorySize() {
+        return undoSize;
+    }
+
+    /**
+     * Forgets all moves made so far, they can no longer be reverted
+     */
+    protected void clearHistory() {
+        Arrays.fill(undoPieces, 0, undoSize << 1, null);
+        undoSize = 0;
+    }
+
+    @Override
+    public boolean hasPiece(Location source) {
+        int square = indexOf(source);
+        if(square < 0) return false;
+        if(packed) {
+            return ((occupancy[0] | occupancy[1]) & (1L << square)) != 0;
+        }
+        return squares[square] != PieceType.EMPTY;
+    }
+
+    @Override @Nullable
+    public AbstractPiece getPiece(Location source) {
+        int square = indexOf(source);
+        if(square < 0) return null;
+        return pieceAt(square);
+    }
+
+    @Override
+    public boolean isOutside(Location location) {
+        return location.x() < 0 || location.x() > x || location.y() < 0 || location.y() > y;
+    }
+
+    /**
+     * Gets the mask of all pieces of a type and side
+     * @param side The side of the pieces
+     * @param type The type of the pieces
+     * @return The mask, bit {@code y * 8 + x} set for each piece
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public long getPieces(Side side, PieceType type) {
+        if(!packed) throw new IllegalStateException("Masks are only available on 8x8 boards");
+        return bitboards[side.ordinal() * TYPES + type.ordinal()];
+    }
+
+    /**
+     * Gets the mask of all pieces of a side
+     * @param side The side of the pieces
+     * @return The mask, bit {@code y * 8 + x} set for each piece
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public long getOccupancy(Side side) {
+        if(!packed) throw new IllegalStateException("Masks are only available on 8x8 boards");
+        return occupancy[side.ordinal()];
+    }
+
+    /**
+     * Gets the mask of all pieces on this board
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public long getOccupancy() {
+        if(!packed) throw new IllegalStateException("Masks are only available on 8x8 boards");
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * Plays an encoded move without checking for its legality
+     * and without firing any events.
+     * @param move The move, as generated by {@link MoveGenerator}
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public void playMove(int move) {
+        if(!packed) throw new IllegalStateException("Encoded moves are only available on 8x8 boards");
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        boolean resetClock = Move.isCapture(move) || PieceType.typeOf(squares[from]) == PieceType.PAWN.ordinal();
+        if(flags == Move.EN_PASSANT) {
+            clear(to ^ 8);
+        }
+        if(Move.isPromotion(move)) {
+            int side = PieceType.sideOf(squares[from]);
+            clear(from);
+            clear(to);
+            set(to, Move.promotion(move).code(side == 0 ? Side.WHITE : Side.BLACK));
+        } else {
+            relocate(from, to);
+        }
+        if(flags == Move.KING_CASTLE) {
+            relocate(to + 1, to - 1);
+        } else if(flags == Move.QUEEN_CASTLE) {
+            relocate(to - 2, to + 1);
+        }
+        updateCastling(castling & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        updateEnPassant(flags == Move.DOUBLE_PUSH ? (from + to) >>> 1 : -1);
+        countMove(sideToMove, resetClock);
+        setSideToMove(sideToMove.other());
+    }
+
+    /**
+     * @return The remaining castling rights, see {@link #WHITE_KING_SIDE} and others
+     */
+    public int getCastlingRights() {
+        return castling;
+    }
+
+    /**
+     * @return The square index a pawn may capture onto en passant, or {@code -1}
+     */
+    public int getEnPassantSquare() {
+        return enPassant;
+    }
+
+    /**
+     * @return The side whose turn it is, it changes with every move made on this board
+     */
+    public Side getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(Side side) {
+        if(sideToMove != side) key ^= Zobrist.side();
+        this.sideToMove = side;
+        snapshot = null;
+    }
+
+    /**
+     * @return The number of half moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return The number of the current full move, starting at 1
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Captures the current position. Snapshots are immutable and may be held
+     * and shared freely; the same snapshot is returned until the board changes.
+     * @return A snapshot of the current position
+     */
+    public PositionSnapshot snapshot() {
+        PositionSnapshot ret = snapshot;
+        if(ret == null) {
+            ret = new PositionSnapshot(this);
+            snapshot = ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the 64-bit Zobrist key of the current position, covering the pieces,
+     * castling rights, side to move and the en passant file if a pawn can capture
+     * en passant, but not the board ID. Identical positions on different boards share the same key.
+     * <p>
+     * The key is maintained incrementally on every change of the board,
+     * hence this is a constant-time call.
+     * @return The position key
+     */
+    public long positionKey() {
+        return key;
+    }
+
+    /**
+     * Gets the material and placement score of the current position in
+     * centipawns, positive when white is better. Placement only counts
+     * on 8x8 boards.
+     * <p>
+     * Like the position key, the score is maintained incrementally on every
+     * change of the board, hence this is a constant-time call.
+     * @return The score from the view of white
+     */
+    public int getPieceSquareScore() {
+        return score;
+    }
+
+    /**
+     * Replaces the position of this board by the one described in
+     * Forsyth-Edwards Notation, without allocating. The placement must
+     * match the size of this board, and fields after the side to move
+     * may be omitted. No events are fired.
+     * @param fen The position
+     * @throws IllegalArgumentException if the position is malformed,
+     * the board is then left empty
+     */
+    public void setFen(CharSequence fen) {
+        Fen.parse(fen, this);
+    }
+
+    /**
+     * @return The position of this board in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        Fen.write(this, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Gets the compact code of the piece on a square, without creating its object
+     * @param square The square index, {@code y * (maxX + 1) + x}
+     * @return The piece code, or {@link PieceType#EMPTY}
+     */
+    public int getPieceCode(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return Whether this board is 8x8 and supports masks
+     */
+    public boolean isPacked() {
+        return packed;
+    }
+
+    public UUID getID() {
+        return id;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return An immutable, view-only map backed by this board
+     */
+    public Map<Location, AbstractPiece> getPieceMap() {
+        return new PieceMapView();
+    }
+
+    /* - - - Square storage - - - */
+
+    /**
+     * @param location The location
+     * @return The square index of the location, or {@code -1} if it is outside
+     */
+    public final int indexOf(Location location) {
+        if(isOutside(location)) return -1;
+        return location.y() * width + location.x();
+    }
+
+    /**
+     * @param square The square index, must be inside this board
+     * @return The location of the square
+     */
+    public final Location locationOf(int square) {
+        return Location.of(square % width, square / width);
+    }
+
+    final AbstractPiece pieceAt(int square) {
+        AbstractPiece piece = pieces[square];
+        if(piece == null && squares[square] != PieceType.EMPTY) {
+            int code = squares[square];
+            piece = PieceType.of(PieceType.typeOf(code)).create(id, locationOf(square), PieceType.sideOf(code) == 0 ? Side.WHITE : Side.BLACK);
+            piece.setGameBoard(this);
+            pieces[square] = piece;
+        }
+        return piece;
+    }
+
+    /**
+     * Places a piece object onto an empty square
+     */
+    final void put(int square, AbstractPiece piece) {
+        if(piece.getBoardID() == null) piece.setBoardID(this.id);
+        piece.setGameBoard(this);
+        set(square, piece.getType().code(piece.getSide()));
+        pieces[square] = piece;
+    }
+
+    /**
+     * Places a piece code onto an empty square
+     */
+    final void set(int square, int code) {
+        squares[square] = (byte) code;
+        pieces[square] = null;
+        snapshot = null;
+        key ^= Zobrist.piece(code, square);
+        score += packed ? PieceSquare.value(code, square) : PieceSquare.material(code);
+        if(packed) {
+            long bit = 1L << square;
+            int side = PieceType.sideOf(code);
+            bitboards[side * TYPES + PieceType.typeOf(code)] |= bit;
+            occupancy[side] |= bit;
+        }
+    }
+
+    /**
+     * Empties a square
+     */
+    final void clear(int square) {
+        int code = squares[square];
+        if(code == PieceType.EMPTY) return;
+        squares[square] = PieceType.EMPTY;
+        pieces[square] = null;
+        snapshot = null;
+        key ^= Zobrist.piece(code, square);
+        score -= packed ? PieceSquare.value(code, square) : PieceSquare.material(code);
+        if(packed) {
+            long bit = ~(1L << square);
+            int side = PieceType.sideOf(code);
+            bitboards[side * TYPES + PieceType.typeOf(code)] &= bit;
+            occupancy[side] &= bit;
+        }
+    }
+
+    /**
+     * Moves a piece, keeping its object and replacing anything on the destination
+     */
+    final void relocate(int from, int to) {
+        AbstractPiece deferredPiece = pieces[from];
+        int code = squares[from];
+        clear(from);
+        clear(to);
+        set(to, code);
+        if(deferredPiece != null) {
+            deferredPiece.setLocation(locationOf(to));
+            pieces[to] = deferredPiece;
+        }
+    }
+
+    /**
+     * Updates the storage by moving the piece. As such moves are not
+     * recorded, moves made so far can no longer be reverted.
+     * @param from The source square
+     * @param to The destination square
+     */
+    void updatePieces(Side side, int from, int to, boolean capture) {
+        clearHistory();
+        boolean pawn = PieceType.typeOf(squares[from]) == PieceType.PAWN.ordinal();
+        boolean doublePush = pawn && Math.abs(to - from) == 2 * width;
+        boolean castle = packed && PieceType.typeOf(squares[from]) == PieceType.KING.ordinal() && Math.abs(to - from) == 2;
+        relocate(from, to);
+        if(castle) {
+            // The rook jumps over the king
+            int rook = to > from ? to + 1 : to - 2;
+            int rookTo = (from + to) >>> 1;
+            relocate(rook, rookTo);
+            if(pieces[rookTo] != null) pieces[rookTo].setInitialMove(false);
+        }
+        if(packed) {
+            updateCastling(castling & CASTLING_MASK[from] & CASTLING_MASK[to]);
+            updateEnPassant(doublePush ? (from + to) >>> 1 : -1);
+        }
+        countMove(side, pawn || capture);
+        setSideToMove(side.other());
+        if(pawn && canPromote(side, to)) {
+            Location location = locationOf(to);
+            fire(new PromotionEvent(pieceAt(to), new Queen(id, location, side), location, id));
+        }
+    }
+
+    /**
+     * @return Whether a pawn of the side promotes on reaching the square,
+     * as set by the promotion rule
+     */
+    private boolean canPromote(Side side, int square) {
+        int rank = square / width;
+        return switch(promotionRule) {
+            case DISABLED -> false;
+            case HALFWAY -> switch(side) {
+                case WHITE -> rank >= (y / 2 + 1);
+                case BLACK -> rank <= (y / 2 - 1);
+            };
+            case STANDARD -> switch(side) {
+                case WHITE -> rank >= y;
+                case BLACK -> rank <= 0;
+            };
+        };
+    }
+
+    /**
+     * Advances the move counters for a move of the given side
+     */
+    final void countMove(Side side, boolean resetClock) {
+        halfmoveClock = resetClock ? 0 : halfmoveClock + 1;
+        if(side == Side.BLACK) fullmoveNumber++;
+        snapshot = null;
+    }
+
+    /**
+     * Grants each castling right whose king and rook are on their initial squares
+     */
+    final void inferCastlingRights() {
+        updateCastling(homeCastlingRights());
+    }
+
+    /**
+     * @return The castling rights whose king and rook are on their initial squares
+     */
+    final int homeCastlingRights() {
+        if(!packed) return 0;
+        int whiteKing = PieceType.KING.code(Side.WHITE);
+        int whiteRook = PieceType.ROOK.code(Side.WHITE);
+        int blackKing = PieceType.KING.code(Side.BLACK);
+        int blackRook = PieceType.ROOK.code(Side.BLACK);
+        int rights = 0;
+        if(squares[4] == whiteKing) {
+            if(squares[7] == whiteRook) rights |= WHITE_KING_SIDE;
+            if(squares[0] == whiteRook) rights |= WHITE_QUEEN_SIDE;
+        }
+        if(squares[60] == blackKing) {
+            if(squares[63] == blackRook) rights |= BLACK_KING_SIDE;
+            if(squares[56] == blackRook) rights |= BLACK_QUEEN_SIDE;
+        }
+        return rights;
+    }
+
+    final void updateCastling(int rights) {
+        key ^= Zobrist.castling(castling) ^ Zobrist.castling(rights);
+        castling = rights;
+        snapshot = null;
+    }
+
+    /**
+     * Sets the en passant square. It only counts towards the key if an enemy
+     * pawn attacks it, so that positions reached by a double push or by single
+     * pushes share their key when no capture is possible.
+     */
+    final void updateEnPassant(int square) {
+        key ^= enPassantKey;
+        enPassantKey = 0;
+        if(square >= 0 && packed) {
+            // The square behind a white pawn lies on the third rank
+            int capturer = square < 32 ? Side.BLACK.ordinal() : Side.WHITE.ordinal();
+            long pawns = bitboards[capturer * TYPES + PieceType.PAWN.ordinal()];
+            if((Attacks.pawn(capturer ^ 1, square) & pawns) != 0) enPassantKey = Zobrist.enPassant(square);
+        }
+        key ^= enPassantKey;
+        enPassant = square;
+        snapshot = null;
+    }
+
+    // Events
+
+    @Override
+    public void onCapture(@NotNull CaptureEvent event) {
+        if(!event.getBoardID().equals(this.id)) return;
+        if(event.getPiece() instanceof King) {
+            fire(new GameFinishEvent(this, snapshot(), event.getCapturingSide(), GameFinishEvent.Reason.KING_CAPTURED));
+            finish();
+        }
+        int square = indexOf(event.getLocation());
+        if(square >= 0) {
+            clearHistory();
+            clear(square);
+            if(packed) updateCastling(castling & CASTLING_MASK[square]);
+        }
+    }
+
+    @Override // Fired once a pawn has moved onto a square where it promotes
+    public void onPromote(@NotNull PromotionEvent event) {
+        if(!event.getBoardID().equals(this.id)) return;
+        if(!(event.getPiece() instanceof Pawn pawn)) return;
+        int square = indexOf(event.getLocation());
+        if(square < 0 || squares[square] != PieceType.PAWN.code(pawn.getSide())) return;
+        if(canPromote(pawn.getSide(), square)) {
+            clearHistory();
+            clear(square);
+            put(square, event.getPromotion());
+        }
+    }
+
+    @Override
+    public void finish() {
+        super.finish();
+        clearPosition();
+    }
+
+    /**
+     * Empties the board and resets its state to that of a new board
+     */
+    final void clearPosition() {
+        Arrays.fill(squares, (byte) PieceType.EMPTY);
+        Arrays.fill(pieces, null);
+        Arrays.fill(bitboards, 0);
+        Arrays.fill(occupancy, 0);
+        castling = 0;
+        enPassant = -1;
+        sideToMove = Side.WHITE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        key = 0;
+        enPassantKey = 0;
+        score = 0;
+        snapshot = null;
+        clearHistory();
+    }
+
+    /**
+     * Read-only map over the squares of this board
+     */
+    private final class PieceMapView extends AbstractMap<Location, AbstractPiece> {
+        @Override
+        public AbstractPiece get(Object key) {
+            return key instanceof Location location ? getPiece(location) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Location location && hasPiece(location);
+        }
+
+        @Override
+        public int size() {
+            if(packed) return Long.bitCount(occupancy[0] | occupancy[1]);
+            int size = 0;
+            for(byte code : squares) {
+                if(code != PieceType.EMPTY) size++;
+            }
+            return size;
+        }
+
+        @Override
+        public @NotNull Set<Entry<Location, AbstractPiece>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<Location, AbstractPiece>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while(from < squares.length && squares[from] == PieceType.EMPTY) from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < squares.length;
+                        }
+
+                        @Override
+                        public Entry<Location, AbstractPiece> next() {
+                            if(!hasNext()) throw new NoSuchElementException();
+                            int square = next;
+                            next = advance(square + 1);
+                            return new SimpleImmutableEntry<>(locationOf(square), pieceAt(square));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return PieceMapView.this.size();
+                }
+            };
+        }
+    }
+}
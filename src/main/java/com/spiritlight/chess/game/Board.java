@@ -3,49 +3,55 @@ package com.spiritlight.chess.game;
 import com.spiritlight.chess.pieces.*;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.PromotionRule;
-import com.spiritlight.chess.utils.Side;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
 public class Board {
-    private static final Map<Location, AbstractPiece> DEFAULT = new HashMap<>() {{
-        put(Location.of('a', 7), new Rook(null, Location.of('a', 7), Side.BLACK));
-        put(Location.of('b', 7), new Knight(null, Location.of('b', 7), Side.BLACK));
-        put(Location.of('c', 7), new Bishop(null, Location.of('c', 7), Side.BLACK));
-        put(Location.of('d', 7), new Queen(null, Location.of('d', 7), Side.BLACK));
-        put(Location.of('e', 7), new King(null, Location.of('e', 7), Side.BLACK));
-        put(Location.of('f', 7), new Bishop(null, Location.of('f', 7), Side.BLACK));
-        put(Location.of('g', 7), new Knight(null, Location.of('g', 7), Side.BLACK));
-        put(Location.of('h', 7), new Rook(null, Location.of('h', 7), Side.BLACK));
-
-        put(Location.of('a', 0), new Rook(null, Location.of('a', 0), Side.WHITE));
-        put(Location.of('b', 0), new Knight(null, Location.of('b', 0), Side.WHITE));
-        put(Location.of('c', 0), new Bishop(null, Location.of('c', 0), Side.WHITE));
-        put(Location.of('d', 0), new Queen(null, Location.of('d', 0), Side.WHITE));
-        put(Location.of('e', 0), new King(null, Location.of('e', 0), Side.WHITE));
-        put(Location.of('f', 0), new Bishop(null, Location.of('f', 0), Side.WHITE));
-        put(Location.of('g', 0), new Knight(null, Location.of('g', 0), Side.WHITE));
-        put(Location.of('h', 0), new Rook(null, Location.of('h', 0), Side.WHITE));
-        for(int i = 0; i < 8; i++) {
-            put(Location.of(i, 6), new Pawn(null, Location.of(i, 6), Side.BLACK));
-            put(Location.of(i, 1), new Pawn(null, Location.of(i, 1), Side.WHITE));
-        }
-    }};
+    /**
+     * The classic layout in Forsyth-Edwards Notation
+     */
+    public static final String STARTING_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
 
     /**
      * Initializes a new {@link GameBoard} instance for the game containing
-     * the classic layout of chess and syncs the pieces' UUID
-     * to the board.
+     * the classic layout of chess. The pieces belong to the board alone
+     * and are created once first requested.
      * @return A fully initialized {@link GameBoard} with the classic layout
+     * @see GameBoardPool for reusing boards across games
      */
     public static GameBoard newClassicBoard() {
-        return new GameBoard(7, 7, UUID.randomUUID(), new HashMap<>(DEFAULT), PromotionRule.STANDARD).syncUUID().freezeUpdates();
+        return fromFen(STARTING_FEN);
+    }
+
+    /**
+     * Initializes a new classic sized {@link GameBoard} holding the
+     * position described in Forsyth-Edwards Notation
+     * @param fen The position
+     * @return A fully initialized {@link GameBoard} with the given position
+     * @throws IllegalArgumentException if the position is malformed
+     * @see BitBoard#setFen(CharSequence)
+     */
+    public static GameBoard fromFen(CharSequence fen) {
+        GameBoard board = new GameBoard(7, 7, GameRegistry.newId(), Collections.emptyMap(), PromotionRule.STANDARD);
+        try {
+            board.setFen(fen);
+        } catch (IllegalArgumentException e) {
+            board.finish();
+            throw e;
+        }
+        return board.freezeUpdates();
     }
 
+    /**
+     * @return A new map of new pieces in the classic layout, bound to no board
+     */
     public static Map<Location, AbstractPiece> getDefaultLayout() {
-        return new HashMap<>(DEFAULT);
+        BitBoard board = new BitBoard(7, 7);
+        board.setFen(STARTING_FEN);
+        return new HashMap<>(board.snapshot().toPieceMap());
     }
 
     public static class Builder {
@@ -0,0 +1,100 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.Side;
+
+import java.util.Arrays;
+
+/**
+ * Render cache of a board for {@link GameBoard#getBoardView()}.
+ * <br /> <br />
+ * The frame of the board is laid out once into a character array, with the
+ * index of each square's cell remembered. Rendering compares the squares of
+ * a snapshot with those last drawn, redraws only the cells that changed, and
+ * hands out the same string for as long as the snapshot is the same.
+ * <br /> <br />
+ * Only immutable {@link PositionSnapshot snapshots} are read, never the live
+ * board, so a view may be shared by threads rendering snapshots they were
+ * handed, such as those of {@link com.spiritlight.chess.events.GameEvent}s.
+ */
+final class BoardView {
+    private static final char EMPTY = '░';
+    /**
+     * Character of each piece code, as given by {@link com.spiritlight.chess.pieces.AbstractPiece#character()}
+     */
+    private static final char[] GLYPHS = new char[16];
+
+    static {
+        Arrays.fill(GLYPHS, EMPTY);
+        for(PieceType type : PieceType.values()) {
+            for(Side side : Side.values()) {
+                GLYPHS[type.code(side)] = type.create(null, Location.of(0, 0), side).character().charAt(0);
+            }
+        }
+    }
+
+    private final char[] frame;
+    /**
+     * Index of the cell of each square in the frame
+     */
+    private final int[] cells;
+    /**
+     * Piece codes the frame currently shows
+     */
+    private final byte[] drawn;
+    private PositionSnapshot shown;
+    private String text;
+
+    BoardView(BitBoard board) {
+        int x = board.x;
+        int y = board.y;
+        this.cells = new int[board.squares.length];
+        this.drawn = new byte[board.squares.length];
+
+        StringBuilder layout = new StringBuilder("╔");
+        for(int i = 0; i <= x; i++) {
+            layout.append(i == x ? "═╗╮" : "═╤");
+        }
+        layout.append("\n");
+        for(int axisY = y; axisY >= 0; axisY--) {
+            layout.append("║");
+            for(int axisX = 0; axisX <= x; axisX++) {
+                cells[axisY * board.width + axisX] = layout.length();
+                layout.append(EMPTY).append(axisX == x ? "" : "│");
+            }
+            layout.append("║").append(axisY + 1).append("\n");
+        }
+        layout.append("╚");
+        for(int i = 0; i <= x; i++) {
+            layout.append(x == i ? "═╝" : "═╧");
+        }
+        layout.append("\n");
+        layout.append("╰");
+        for(int i = 0; i <= x; i++) {
+            layout.append(Location.toReflectedAddress(i)).append("┈");
+        }
+        layout.append("╯");
+        this.frame = new char[layout.length()];
+        layout.getChars(0, frame.length, frame, 0);
+    }
+
+    /**
+     * @param snapshot A position of the board this view was created for
+     * @return The view of the position
+     */
+    synchronized String render(PositionSnapshot snapshot) {
+        if(snapshot == shown) return text;
+        boolean changed = text == null;
+        for(int square = 0; square < drawn.length; square++) {
+            byte code = (byte) snapshot.getPieceCode(square);
+            if(code == drawn[square]) continue;
+            drawn[square] = code;
+            frame[cells[square]] = GLYPHS[code];
+            changed = true;
+        }
+        if(changed) text = new String(frame);
+        shown = snapshot;
+        return text;
+    }
+}
@@ -0,0 +1,204 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <br /> <br />
+ * Parsing makes a single pass over the text and writes piece codes straight
+ * into the board storage, no object is allocated unless the text is malformed.
+ */
+final class Fen {
+    /**
+     * Piece code of each FEN letter, {@link PieceType#EMPTY} for other characters
+     */
+    private static final byte[] CODES = new byte[128];
+    /**
+     * FEN letter of each piece code
+     */
+    private static final char[] LETTERS = new char[16];
+
+    static {
+        String letters = "PNBRQK";
+        for(int type = 0; type < letters.length(); type++) {
+            char white = letters.charAt(type);
+            char black = Character.toLowerCase(white);
+            int whiteCode = PieceType.of(type).code(Side.WHITE);
+            int blackCode = PieceType.of(type).code(Side.BLACK);
+            CODES[white] = (byte) whiteCode;
+            CODES[black] = (byte) blackCode;
+            LETTERS[whiteCode] = white;
+            LETTERS[blackCode] = black;
+        }
+    }
+
+    private Fen() {
+    }
+
+    static void parse(CharSequence fen, BitBoard board) {
+        board.clearPosition();
+        try {
+            parseInto(fen, board);
+        } catch (IllegalArgumentException e) {
+            board.clearPosition();
+            throw e;
+        }
+    }
+
+    private static void parseInto(CharSequence fen, BitBoard board) {
+        int width = board.width;
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        // Placement, from the last rank down
+        int rank = board.y;
+        int file = 0;
+        for(; i < length && !isSpace(fen.charAt(i)); i++) {
+            char c = fen.charAt(i);
+            if(c == '/') {
+                if(file != width || rank == 0) throw invalid(fen, i);
+                file = 0;
+                rank--;
+            } else if(c >= '1' && c <= '9') {
+                int empty = c - '0';
+                while(i + 1 < length && isDigit(fen.charAt(i + 1))) {
+                    empty = empty * 10 + fen.charAt(++i) - '0';
+                }
+                file += empty;
+                if(file > width) throw invalid(fen, i);
+            } else {
+                int code = c < 128 ? CODES[c] : PieceType.EMPTY;
+                if(code == PieceType.EMPTY || file >= width) throw invalid(fen, i);
+                board.set(rank * width + file, code);
+                file++;
+            }
+        }
+        if(rank != 0 || file != width) throw invalid(fen, i);
+
+        // Side to move
+        i = skipSpaces(fen, i);
+        if(i >= length) throw invalid(fen, i);
+        switch(fen.charAt(i++)) {
+            case 'w' -> board.setSideToMove(Side.WHITE);
+            case 'b' -> board.setSideToMove(Side.BLACK);
+            default -> throw invalid(fen, i - 1);
+        }
+        if(i < length && !isSpace(fen.charAt(i))) throw invalid(fen, i);
+
+        // Castling rights, only kept where the king and rook are in place
+        i = skipSpaces(fen, i);
+        if(i < length) {
+            int rights = 0;
+            if(fen.charAt(i) == '-') {
+                i++;
+            } else {
+                for(; i < length && !isSpace(fen.charAt(i)); i++) {
+                    rights |= switch(fen.charAt(i)) {
+                        case 'K' -> BitBoard.WHITE_KING_SIDE;
+                        case 'Q' -> BitBoard.WHITE_QUEEN_SIDE;
+                        case 'k' -> BitBoard.BLACK_KING_SIDE;
+                        case 'q' -> BitBoard.BLACK_QUEEN_SIDE;
+                        default -> throw invalid(fen, i);
+                    };
+                }
+            }
+            board.updateCastling(rights & board.homeCastlingRights());
+        }
+
+        // En passant square, only ever behind a pawn pushed two squares
+        i = skipSpaces(fen, i);
+        if(i < length) {
+            if(fen.charAt(i) == '-') {
+                i++;
+            } else {
+                int epFile = fen.charAt(i++) - 'a';
+                int epRank = 0;
+                int start = i;
+                while(i < length && isDigit(fen.charAt(i))) {
+                    epRank = epRank * 10 + fen.charAt(i++) - '0';
+                }
+                if(i == start || epFile < 0 || epFile >= width || (epRank != 3 && epRank != board.y - 1)) throw invalid(fen, start - 1);
+                if(board.packed) board.updateEnPassant((epRank - 1) * width + epFile);
+            }
+        }
+
+        // Move counters
+        i = skipSpaces(fen, i);
+        if(i < length) {
+            int start = i;
+            int halfmoves = 0;
+            while(i < length && isDigit(fen.charAt(i))) {
+                halfmoves = halfmoves * 10 + fen.charAt(i++) - '0';
+            }
+            if(i == start || halfmoves < 0) throw invalid(fen, start);
+            board.halfmoveClock = halfmoves;
+        }
+        i = skipSpaces(fen, i);
+        if(i < length) {
+            int start = i;
+            int fullmoves = 0;
+            while(i < length && isDigit(fen.charAt(i))) {
+                fullmoves = fullmoves * 10 + fen.charAt(i++) - '0';
+            }
+            if(i == start || fullmoves < 1) throw invalid(fen, start);
+            board.fullmoveNumber = fullmoves;
+        }
+        if(skipSpaces(fen, i) != length) throw invalid(fen, i);
+    }
+
+    static void write(BitBoard board, StringBuilder out) {
+        int width = board.width;
+        for(int rank = board.y; rank >= 0; rank--) {
+            int empty = 0;
+            for(int file = 0; file < width; file++) {
+                int code = board.squares[rank * width + file];
+                if(code == PieceType.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if(empty > 0) {
+                    out.append(empty);
+                    empty = 0;
+                }
+                out.append(LETTERS[code]);
+            }
+            if(empty > 0) out.append(empty);
+            if(rank > 0) out.append('/');
+        }
+        out.append(' ').append(board.sideToMove == Side.WHITE ? 'w' : 'b').append(' ');
+        int castling = board.castling;
+        if(castling == 0) {
+            out.append('-');
+        } else {
+            if((castling & BitBoard.WHITE_KING_SIDE) != 0) out.append('K');
+            if((castling & BitBoard.WHITE_QUEEN_SIDE) != 0) out.append('Q');
+            if((castling & BitBoard.BLACK_KING_SIDE) != 0) out.append('k');
+            if((castling & BitBoard.BLACK_QUEEN_SIDE) != 0) out.append('q');
+        }
+        out.append(' ');
+        if(board.enPassant < 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + board.enPassant % width)).append(board.enPassant / width + 1);
+        }
+        out.append(' ').append(board.halfmoveClock).append(' ').append(board.fullmoveNumber);
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while(i < fen.length() && isSpace(fen.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, int index) {
+        return new IllegalArgumentException("Invalid FEN at index " + index + ": " + fen);
+    }
+}
@@ -0,0 +1,102 @@
+package com.spiritlight.chess.game;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Streams positions in Forsyth-Edwards Notation, one per line, through a single board.
+ * <br /> <br />
+ * Lines are gathered in a reused buffer and parsed in place by
+ * {@link BitBoard#setFen(CharSequence)}, hence reading allocates nothing
+ * per position. Blank lines are skipped.
+ */
+public final class FenReader {
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder(128);
+    private int position;
+    private int limit;
+    private long lineNumber;
+
+    public FenReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next position into a board
+     * @param board The board to overwrite
+     * @return {@code false} if the input is exhausted, the board is then untouched
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public boolean next(BitBoard board) throws IOException {
+        while(readLine()) {
+            if(isBlank(line)) continue;
+            try {
+                board.setFen(line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads every remaining position into a board, handing it to the action
+     * after each one. The action must not keep the board, but may keep
+     * its {@link BitBoard#snapshot() snapshot}.
+     * @param board The board to overwrite
+     * @param action The action to run on each position
+     * @return The number of positions read
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public long forEach(BitBoard board, Consumer<? super BitBoard> action) throws IOException {
+        long count = 0;
+        while(next(board)) {
+            action.accept(board);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of the line read last, starting at 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        while(true) {
+            if(position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if(limit <= 0) {
+                    limit = 0;
+                    if(line.length() == 0) return false;
+                    lineNumber++;
+                    return true;
+                }
+            }
+            int start = position;
+            while(position < limit && buffer[position] != '\n') position++;
+            line.append(buffer, start, position - start);
+            if(position < limit) {
+                position++;
+                lineNumber++;
+                return true;
+            }
+        }
+    }
+
+    private static boolean isBlank(CharSequence s) {
+        for(int i = 0; i < s.length(); i++) {
+            if(!Character.isWhitespace(s.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -1,12 +1,9 @@
 package com.spiritlight.chess.game;
 
-import com.spiritlight.chess.events.CaptureEvent;
 import com.spiritlight.chess.events.GameEvent;
 import com.spiritlight.chess.events.GameFinishEvent;
-import com.spiritlight.chess.events.PromotionEvent;
 import com.spiritlight.chess.pieces.AbstractPiece;
-import com.spiritlight.chess.pieces.King;
-import com.spiritlight.chess.pieces.Pawn;
+import com.spiritlight.chess.pieces.PieceType;
 import com.spiritlight.chess.utils.Formatter;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.PromotionRule;
@@ -20,43 +17,55 @@ import java.util.*;
 /**
  * The main class for a chess game to take place
  * <br /> <br />
- * Note that even though it is possible to initialize a board size that
- * does not cover all pieces loaded in pieceMap, one may still be allowed
- * to do moves from outside the map to inside the board.
+ * The position is stored by {@link BitBoard}, hence all pieces loaded
+ * from the pieceMap must be placed inside the board.
  * <p>
  * Additionally, this board implementation also allows multiple boards to exist
- * at once, however, the backing storage is not thread-safe.
+ * at once, all of them tracked by the thread-safe {@link GameRegistry}. A single
+ * board however is not thread-safe.
  * <p><p>
  * All board are recognized with their special id, backed by a UUID usually.
  * You may retrieve a board by {@link GameBoard#getBoard(UUID)}. If {@code null} is
  * returned, it indicates that the game has finished on the board.
  */
-public final class GameBoard extends AbstractBoard {
-    private final int x;
-    private final int y;
-    private final UUID id;
+public final class GameBoard extends BitBoard {
+    private static final int UNKNOWN = -1;
+    private static final int IN_CHECK = 1;
+    private static final int HAS_MOVES = 2;
+
     /**
-     * Current board pieces
+     * Whether this board can be modified via {@link Board}'s initializations
+     * provided by this class
      */
-    private final Map<Location, AbstractPiece> pieceMap;
+    private boolean update = true;
+    private volatile boolean completed = false;
     /**
-     * Promotion rule for this game instance
+     * The pool this board returns to once released, if any
      */
-    private PromotionRule promotionRule;
+    GameBoardPool pool;
     /**
-     * Whether this board can be modified via {@link Board}'s initializations
-     * provided by this class
+     * Whether this board is idle in its pool, guarded by the board
      */
-    private boolean update = true;
-    private boolean completed = false;
-    private static final List<GameBoard> activeGameBoards = new ArrayList<>();
+    boolean pooled;
+    /**
+     * Status of each side by side ordinal, valid while the position key matches
+     */
+    private final long[] statusKeys = new long[2];
+    private final int[] statuses = {UNKNOWN, UNKNOWN};
+    /**
+     * Render cache, created once first viewed
+     */
+    private volatile BoardView view;
 
+    /**
+     * Retrieves a game in play
+     * @param id The board ID
+     * @return The board, or {@code null} if the game has finished
+     * @see GameRegistry#get(UUID)
+     */
     @Contract(pure = true)
     public static @Nullable GameBoard getBoard(UUID id) {
-        for(GameBoard gameBoard : activeGameBoards) {
-            if(gameBoard.id.equals(id)) return gameBoard;
-        }
-        return null;
+        return GameRegistry.get(id);
     }
 
     public GameBoard(int x, int y) {
@@ -64,15 +73,19 @@ public final class GameBoard extends AbstractBoard {
     }
 
     GameBoard(int x, int y, UUID id, Map<Location, AbstractPiece> pieceMap, PromotionRule promotionRule) {
-        if(x < 0 || y < 0) throw new IllegalArgumentException("Unable to construct a board with height or width less than 0");
-        this.x = x;
-        this.y = y;
-        this.id = id;
-        this.pieceMap = pieceMap;
-        this.promotionRule = promotionRule;
-        activeGameBoards.add(this);
-        CaptureEvent.addListener(this);
-        PromotionEvent.addListener(this);
+        super(x, y, id, pieceMap, promotionRule);
+        GameRegistry.register(this);
+    }
+
+    /**
+     * Creates an empty classic board of a pool, which holds no game and is
+     * not registered until {@link #reset(CharSequence) reset}
+     */
+    GameBoard(GameBoardPool pool) {
+        super(7, 7, GameRegistry.newId(), Collections.emptyMap(), PromotionRule.STANDARD);
+        this.update = false;
+        this.pool = pool;
+        this.completed = true;
     }
 
     /**
@@ -83,9 +96,10 @@ public final class GameBoard extends AbstractBoard {
     @NotNull
     public List<Location> getLocationOf(AbstractPiece piece) {
         List<Location> ret = new ArrayList<>();
-        for(Map.Entry<Location, AbstractPiece> entry : pieceMap.entrySet()) {
-            if(entry.getValue().getClass() == piece.getClass()) {
-                ret.add(entry.getKey());
+        int type = piece.getType().ordinal();
+        for(int square = 0; square < squares.length; square++) {
+            if(squares[square] != PieceType.EMPTY && PieceType.typeOf(squares[square]) == type) {
+                ret.add(locationOf(square));
             }
         }
         return ret;
@@ -109,81 +123,110 @@ public final class GameBoard extends AbstractBoard {
             System.out.println("Move illegal or wrong side");
             return false;
         }
+        boolean capture = hasPiece(destination);
+        if(packed) {
+            // Moves leaving the king in check are refused
+            int move = encode(indexOf(source), indexOf(destination));
+            if(!MoveGenerator.isLegal(this, side, move)) return false;
+            // Nor may a king castle out of or through check
+            if(Move.isCastle(move) && (MoveGenerator.isAttacked(this, Move.from(move), side.other())
+                    || MoveGenerator.isAttacked(this, (Move.from(move) + Move.to(move)) >>> 1, side.other()))) return false;
+        }
         piece.move(destination); // Deferring return to fire updated event
-        this.updatePieces(source, destination);
-        GameEvent.fire(new GameEvent(this, pieceMap));
+        this.updatePieces(side, indexOf(source), indexOf(destination), capture);
+        fire(new GameEvent(this, snapshot()));
+        if(packed && !completed) detectEnd(side.other());
         return true;
     }
 
-    @Override
-    public boolean hasPiece(Location source) {
-        return pieceMap.get(source) != null;
+    /**
+     * Encodes a move allowed by the rules of its piece, with the flags of a
+     * double push, an en passant capture, a promotion or castling read from
+     * the piece and the squares
+     * @return The move
+     */
+    private int encode(int from, int to) {
+        boolean capture = squares[to] != PieceType.EMPTY;
+        int type = PieceType.typeOf(squares[from]);
+        if(type == PieceType.PAWN.ordinal()) {
+            if(Math.abs(to - from) == 16) return Move.of(from, to, Move.DOUBLE_PUSH);
+            // A pawn only leaves its file for an empty square en passant
+            if(!capture && (to & 7) != (from & 7)) return Move.of(from, to, Move.EN_PASSANT);
+            if(to >>> 3 == 0 || to >>> 3 == 7) return Move.of(from, to, Move.promotionFlags(PieceType.QUEEN, capture));
+        } else if(type == PieceType.KING.ordinal() && Math.abs(to - from) == 2) {
+            return Move.of(from, to, to > from ? Move.KING_CASTLE : Move.QUEEN_CASTLE);
+        }
+        return Move.of(from, to, capture ? Move.CAPTURE : Move.QUIET);
     }
 
-    @Override @Nullable
-    public AbstractPiece getPiece(Location source) {
-        return pieceMap.get(source);
+    /**
+     * Whether the king of a side is attacked
+     * @param side The side of the king
+     * @return {@code true} if the side is in check
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public boolean isInCheck(Side side) {
+        return (status(side) & IN_CHECK) != 0;
     }
 
     /**
-     * Updates the piece map by moving the pieces
-     * @param from The source tile
-     * @param to The destination tile
+     * Whether a side is in check and has no legal move
+     * @param side The side to test, usually the side to move
+     * @return {@code true} if the side is checkmated
+     * @throws IllegalStateException if this board is not 8x8
      */
-    private void updatePieces(Location from, Location to) {;
-        AbstractPiece deferredPiece = this.pieceMap.get(from);
-        this.pieceMap.put(from, null);
-        this.pieceMap.put(to, deferredPiece);
+    public boolean isCheckmate(Side side) {
+        return status(side) == IN_CHECK;
     }
 
-    // Events
+    /**
+     * Whether a side is not in check but has no legal move
+     * @param side The side to test, usually the side to move
+     * @return {@code true} if the side is stalemated
+     * @throws IllegalStateException if this board is not 8x8
+     */
+    public boolean isStalemate(Side side) {
+        return status(side) == 0;
+    }
 
-    @Override
-    public void onCapture(@NotNull CaptureEvent event) {
-        if(!event.getBoardID().equals(this.id)) return;
-        if(event.getPiece() instanceof King) {
-            GameFinishEvent.fire(new GameFinishEvent(this, pieceMap, event.getCapturingSide()));
-            finish();
-        }
-        this.pieceMap.put(event.getLocation(), null);
+    /**
+     * Computes whether a side is in check and has legal moves, once per position
+     * @see MoveGenerator#hasLegalMove(BitBoard, Side)
+     */
+    private int status(Side side) {
+        if(!packed) throw new IllegalStateException("Check detection is only available on 8x8 boards");
+        int index = side.ordinal();
+        long key = positionKey();
+        if(statuses[index] != UNKNOWN && statusKeys[index] == key) return statuses[index];
+        int status = 0;
+        if(MoveGenerator.checkers(this, side) != 0) status |= IN_CHECK;
+        if(MoveGenerator.hasLegalMove(this, side)) status |= HAS_MOVES;
+        statusKeys[index] = key;
+        statuses[index] = status;
+        return status;
     }
 
-    @Override // If a pawn makes a move, it'll call this method each time.
-    public void onPromote(@NotNull PromotionEvent event) {
-        if(!event.getBoardID().equals(this.id)) return;
-        if(!(event.getPiece() instanceof Pawn pawn)) return;
-        // Check for promotion rule for validity of promotion
-        switch(promotionRule) {
-            case DISABLED -> {
-            }
-            case HALFWAY -> {
-                boolean canPromote = switch(pawn.getSide()) {
-                    case WHITE -> pawn.getLocation().y() >= (y / 2 + 1);
-                    case BLACK -> pawn.getLocation().y() <= (y / 2 - 1);
-                };
-                if(canPromote) {
-                    pieceMap.put(event.getLocation(), event.getPromotion());
-                }
-            }
-            case STANDARD -> {
-                boolean canPromote = switch(pawn.getSide()) {
-                    case WHITE -> pawn.getLocation().y() >= y;
-                    case BLACK -> pawn.getLocation().y() <= 0;
-                };
-                if(canPromote) {
-                    pieceMap.put(event.getLocation(), event.getPromotion());
-                }
-            }
-        }
+    /**
+     * Ends the game if the side to move is checkmated or stalemated
+     */
+    private void detectEnd(Side side) {
+        int status = status(side);
+        if((status & HAS_MOVES) != 0) return;
+        boolean mate = (status & IN_CHECK) != 0;
+        fire(new GameFinishEvent(this, snapshot(), mate ? side.other() : null,
+                mate ? GameFinishEvent.Reason.CHECKMATE : GameFinishEvent.Reason.STALEMATE));
+        finish();
     }
 
     /* - - - Reserved mostly for Board class for board initializations - - - */
 
     GameBoard syncUUID() {
         if(!this.update) throw new IllegalStateException("Updates cannot be made anymore!");
-        for(Map.Entry<Location, AbstractPiece> entry : this.pieceMap.entrySet()) {
-            entry.getValue().setBoardID(this.id);
-            entry.getValue().setGameBoard(this);
+        for(int square = 0; square < squares.length; square++) {
+            AbstractPiece piece = pieces[square];
+            if(piece == null) continue;
+            if(!this.id.equals(piece.getBoardID())) piece.setBoardID(this.id);
+            piece.setGameBoard(this);
         }
         return this;
     }
@@ -194,6 +237,17 @@ public final class GameBoard extends AbstractBoard {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException if the board has been initialized,
+     * use {@link #reset(CharSequence)} to start a new game instead
+     */
+    @Override
+    public void setFen(CharSequence fen) {
+        if(!this.update) throw new IllegalStateException("Updates cannot be made anymore!");
+        super.setFen(fen);
+    }
+
     GameBoard freezeUpdates() {
         this.update = false;
         return this;
@@ -203,72 +257,67 @@ public final class GameBoard extends AbstractBoard {
 
     @Override
     public void finish() {
-        CaptureEvent.removeListener(this);
-        PromotionEvent.removeListener(this);
-        pieceMap.clear();
-        activeGameBoards.remove(this);
+        super.finish();
+        GameRegistry.unregister(this);
         completed = true;
     }
 
-    public boolean isCompleted() {
-        return completed;
+    /**
+     * Starts a new game on this board from the classic layout
+     * @see #reset(CharSequence)
+     */
+    public void reset() {
+        reset(Board.STARTING_FEN);
     }
 
-    @Override
-    public boolean isOutside(Location location) {
-        return location.x() < 0 || location.x() >= x || location.y() < 0 || location.y() >= y;
+    /**
+     * Starts a new game on this board, finishing the current one if needed.
+     * The new game has its own ID, no listeners, and pieces created afresh
+     * once requested, hence nothing of the previous game carries over.
+     * @param fen The position to start from, in Forsyth-Edwards Notation
+     * @throws IllegalArgumentException if the position is malformed,
+     * the board is then left finished
+     */
+    public void reset(CharSequence fen) {
+        if(!completed) finish();
+        getEventBus().clear();
+        getEventBus().disableAsync();
+        super.setFen(fen);
+        this.id = GameRegistry.newId();
+        GameRegistry.register(this);
+        completed = false;
     }
 
-    public int getX() {
-        return x;
+    /**
+     * Ends the life of this board: the game is finished, and the board is
+     * returned to the pool it was acquired from, if any. The board must not
+     * be used afterwards.
+     * @throws IllegalStateException if the board has already been returned to its pool
+     * @see GameBoardPool#release(GameBoard)
+     */
+    public void release() {
+        if(pool != null) {
+            pool.release(this);
+        } else if(!completed) {
+            finish();
+        }
     }
 
-    public int getY() {
-        return y;
+    public boolean isCompleted() {
+        return completed;
     }
 
     /**
-     * Returns a String representation of how the current board looks like
+     * Returns a String representation of how the current board looks like.
+     * Views are cached, the same string is returned until the board changes.
      * @return A text view of this board
      */
     public String getBoardView() {
-        StringBuilder ret = new StringBuilder("╔");
-        for(int i = 0; i <= x; i++) {
-            ret.append(i == x ? "═╗╮" : "═╤");
+        BoardView view = this.view;
+        if(view == null) {
+            view = this.view = new BoardView(this);
         }
-        ret.append("\n");
-        for(int axisY = y; axisY >= 0; axisY--) {
-            ret.append("║");
-            for(int axisX = 0; axisX < x; axisX++) {
-                AbstractPiece piece = pieceMap.get(Location.of(axisX, axisY));
-                String append;
-                if(piece == null) {
-                    append = "░";
-                } else {
-                    append = piece.character();
-                }
-                ret.append(append).append(axisX + 1 == x ? "" : "│");
-            }
-            ret.append("║").append(axisY + 1).append("\n");
-        }
-        ret.append("╚");
-        for(int i = 0; i <= x; i++) {
-            ret.append(x == i ? "═╝" : "═╧");
-        }
-        ret.append("\n");
-        ret.append("╰");
-        for(int i = 0; i < x; i++) {
-            ret.append(Location.toReflectedAddress(i)).append("┈");
-        }
-        ret.append("╯");
-        return ret.toString();
-    }
-
-    /**
-     * @return An immutable, view-only map
-     */
-    public Map<Location, AbstractPiece> getPieceMap() {
-        return Collections.unmodifiableMap(pieceMap);
+        return view.render(snapshot());
     }
 
     /**
@@ -280,16 +329,31 @@ public final class GameBoard extends AbstractBoard {
         return formatter.format(this.getBoardView());
     }
 
+    /**
+     * Writes how the current board looks like into an output, the view is
+     * streamed from its cache through the formatter without copies
+     * @param formatter The formatter to format the view
+     * @param out The output to append to
+     * @throws java.io.UncheckedIOException if appending fails
+     */
+    public void writeBoardView(Formatter formatter, Appendable out) {
+        formatter.formatTo(this.getBoardView(), out);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GameBoard gameBoard = (GameBoard) o;
-        return x == gameBoard.x && y == gameBoard.y && id.equals(gameBoard.id) && pieceMap.equals(gameBoard.pieceMap);
+        return x == gameBoard.x && y == gameBoard.y && id.equals(gameBoard.id)
+                && key == gameBoard.key && Arrays.equals(squares, gameBoard.squares);
     }
 
+    /**
+     * Hashes the current position, see {@link #positionKey()}
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, id, pieceMap);
+        return Long.hashCode(key);
     }
 }
@@ -0,0 +1,124 @@
+package com.spiritlight.chess.game;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of classic sized {@link GameBoard}s, so that starting a game reuses the
+ * storage of a finished one instead of allocating a board and its pieces.
+ * <br /> <br />
+ * Boards are handed out {@link GameBoard#reset(CharSequence) reset}: each game has
+ * its own ID and fresh piece state. Once the game is over, the board goes back
+ * via {@link #release(GameBoard)} or {@link GameBoard#release()}; boards beyond
+ * the capacity of the pool are left to the garbage collector.
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class GameBoardPool {
+    private final ConcurrentLinkedQueue<GameBoard> boards = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * Creates an empty pool
+     * @param capacity The maximum number of idle boards kept
+     */
+    public GameBoardPool(int capacity) {
+        if(capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Acquires a board holding the classic layout
+     * @return A board ready for a new game
+     */
+    public GameBoard acquire() {
+        return acquire(Board.STARTING_FEN);
+    }
+
+    /**
+     * Acquires a board holding the given position
+     * @param fen The position, in Forsyth-Edwards Notation
+     * @return A board ready for a new game
+     * @throws IllegalArgumentException if the position is malformed
+     */
+    public GameBoard acquire(CharSequence fen) {
+        GameBoard board = boards.poll();
+        if(board == null) {
+            board = new GameBoard(this);
+            created.increment();
+        } else {
+            size.decrementAndGet();
+            reused.increment();
+            synchronized(board) {
+                board.pooled = false;
+            }
+        }
+        try {
+            board.reset(fen);
+        } catch (IllegalArgumentException e) {
+            release(board);
+            throw e;
+        }
+        return board;
+    }
+
+    /**
+     * Finishes the game of a board if needed, and keeps the board for reuse
+     * @param board A board acquired from this pool
+     * @throws IllegalArgumentException if the board belongs to another pool
+     * @throws IllegalStateException if the board has already been released
+     */
+    public void release(GameBoard board) {
+        if(board.pool != this) throw new IllegalArgumentException("The board was not acquired from this pool");
+        synchronized(board) {
+            // A second release would hand the same board to two games
+            if(board.pooled) throw new IllegalStateException("The board has already been released");
+            board.pooled = true;
+        }
+        if(!board.isCompleted()) board.finish();
+        board.getEventBus().clear();
+        offer(board);
+    }
+
+    private void offer(GameBoard board) {
+        if(size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return;
+        }
+        boards.offer(board);
+    }
+
+    /**
+     * Discards all idle boards
+     */
+    public void clear() {
+        while(boards.poll() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return The number of idle boards
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return The number of boards created by this pool
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * @return The number of acquisitions served by a released board
+     */
+    public long getReusedCount() {
+        return reused.sum();
+    }
+}
@@ -0,0 +1,98 @@
+package com.spiritlight.chess.game;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the games in play, keyed by board ID.
+ * <br /> <br />
+ * Every {@link GameBoard} registers itself once constructed, and unregisters once
+ * {@link GameBoard#finish() finished}. Lookups take constant time and all
+ * operations are safe to call from any thread; boards of different IDs never
+ * contend with each other beyond the striping of the underlying map.
+ */
+public final class GameRegistry {
+    private static final Map<UUID, GameBoard> boards = new ConcurrentHashMap<>();
+    private static final LongAdder created = new LongAdder();
+    private static final LongAdder finished = new LongAdder();
+
+    private GameRegistry() {
+    }
+
+    /**
+     * Retrieves a game in play
+     * @param id The board ID, may be {@code null} for pieces not yet placed on a board
+     * @return The board, or {@code null} if there is no such board or its game has finished
+     */
+    @Contract(pure = true)
+    public static @Nullable GameBoard get(@Nullable UUID id) {
+        return id == null ? null : boards.get(id);
+    }
+
+    /**
+     * @return A live, read-only view of the games in play
+     */
+    public static Collection<GameBoard> getBoards() {
+        return Collections.unmodifiableCollection(boards.values());
+    }
+
+    /**
+     * @return The number of games in play
+     */
+    public static int getLiveGameCount() {
+        return boards.size();
+    }
+
+    /**
+     * @return The number of games created so far
+     */
+    public static long getCreatedGameCount() {
+        return created.sum();
+    }
+
+    /**
+     * @return The number of games finished so far
+     */
+    public static long getFinishedGameCount() {
+        return finished.sum();
+    }
+
+    /**
+     * Generates a random board ID. Unlike {@link UUID#randomUUID()} this does not
+     * draw from a secure source, which would slow down creating many games at once.
+     * @return A new version 4 UUID
+     */
+    public static UUID newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = random.nextLong() & ~0xF000L | 0x4000L;
+        long least = random.nextLong() & ~(0xC000000000000000L) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    /**
+     * @throws IllegalStateException if a board of the same ID is already in play
+     */
+    static void register(GameBoard board) {
+        if(boards.putIfAbsent(board.getID(), board) != null) {
+            throw new IllegalStateException("A board of ID " + board.getID() + " is already in play");
+        }
+        created.increment();
+    }
+
+    /**
+     * Unregisters a board, only its first call has any effect
+     */
+    static void unregister(GameBoard board) {
+        if(boards.remove(board.getID(), board)) {
+            finished.increment();
+        }
+    }
+}
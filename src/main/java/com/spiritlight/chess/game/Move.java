@@ -0,0 +1,104 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Location;
+
+/**
+ * Helpers for moves encoded as a primitive {@code int}, as produced
+ * by {@link MoveGenerator}.
+ * <p>
+ * Only the lower 16 bits are used: bits {@code 0-5} hold the source square,
+ * bits {@code 6-11} the destination square (both {@code y * 8 + x}),
+ * and bits {@code 12-15} the move flags.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    /**
+     * Set for all promotions, the lower two bits select the promotion
+     * piece from knight to queen
+     */
+    public static final int PROMOTION = 8;
+
+    private Move() {
+
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    /**
+     * @param move The move, must be a promotion
+     * @return The piece the pawn promotes to
+     */
+    public static PieceType promotion(int move) {
+        return PieceType.of(PieceType.KNIGHT.ordinal() + (flags(move) & 3));
+    }
+
+    /**
+     * @param type The piece to promote to, from knight to queen
+     * @param capture Whether the promotion also captures
+     * @return The flags for such promotion
+     */
+    public static int promotionFlags(PieceType type, boolean capture) {
+        return PROMOTION | (capture ? CAPTURE : 0) | (type.ordinal() - PieceType.KNIGHT.ordinal());
+    }
+
+    public static Location fromLocation(int move) {
+        return Location.of(from(move) & 7, from(move) >>> 3);
+    }
+
+    public static Location toLocation(int move) {
+        return Location.of(to(move) & 7, to(move) >>> 3);
+    }
+
+    /**
+     * Formats the move as its source and destination, such as {@code e2e4}
+     * or {@code e7e8q} for promotions
+     */
+    public static String toString(int move) {
+        StringBuilder ret = new StringBuilder(5)
+                .append((char) ('a' + (from(move) & 7))).append((from(move) >>> 3) + 1)
+                .append((char) ('a' + (to(move) & 7))).append((to(move) >>> 3) + 1);
+        if(isPromotion(move)) {
+            ret.append("nbrq".charAt(flags(move) & 3));
+        }
+        return ret.toString();
+    }
+}
@@ -0,0 +1,368 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Generates every move of a side on a {@link BitBoard} in one pass,
+ * writing them as encoded {@link Move}s into a caller-supplied buffer.
+ * <br /> <br />
+ * Moves follow the standard rules of chess, including castling,
+ * en passant and under-promotions, and are therefore only available on
+ * 8x8 boards. A buffer of {@link #MAX_MOVES} entries per call is always
+ * enough, so a search may reuse a single buffer by passing the end of the
+ * previous call as the offset of the next one.
+ * <p>
+ * Pseudo-legal moves may leave the own king in check, legal moves
+ * never do.
+ */
+public final class MoveGenerator {
+    /**
+     * Upper bound of moves a single position can produce
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+
+    private MoveGenerator() {
+
+    }
+
+    /**
+     * Generates all pseudo-legal moves
+     * @param board The board
+     * @param side The side to generate moves for
+     * @param moves The buffer to write moves into
+     * @return The number of moves written
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public static int generate(BitBoard board, Side side, int[] moves) {
+        return generate(board, side, moves, 0);
+    }
+
+    /**
+     * Generates all legal moves
+     * @param board The board
+     * @param side The side to generate moves for
+     * @param moves The buffer to write moves into
+     * @return The number of moves written
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public static int generateLegal(BitBoard board, Side side, int[] moves) {
+        return generateLegal(board, side, moves, 0);
+    }
+
+    /**
+     * Generates all legal moves
+     * @param board The board
+     * @param side The side to generate moves for
+     * @param moves The buffer to write moves into
+     * @param offset The index of the first move to write
+     * @return The index after the last move written
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public static int generateLegal(BitBoard board, Side side, int[] moves, int offset) {
+        int end = generate(board, side, moves, offset);
+        int ret = offset;
+        for(int i = offset; i < end; i++) {
+            if(isLegal(board, side, moves[i])) {
+                moves[ret++] = moves[i];
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Generates all pseudo-legal moves
+     * @param board The board
+     * @param side The side to generate moves for
+     * @param moves The buffer to write moves into
+     * @param offset The index of the first move to write
+     * @return The index after the last move written
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public static int generate(BitBoard board, Side side, int[] moves, int offset) {
+        if(!board.packed) throw new IllegalArgumentException("Move generation requires an 8x8 board");
+        int us = side.ordinal();
+        int them = us ^ 1;
+        long[] bitboards = board.bitboards;
+        long own = board.occupancy[us];
+        long enemy = board.occupancy[them];
+        long occupied = own | enemy;
+        int base = us * BitBoard.TYPES;
+        int n = offset;
+
+        // Pawns: pushes, double pushes, captures and en passant
+        int forward = us == 0 ? 8 : -8;
+        int startRank = us == 0 ? 1 : 6;
+        int lastRank = us == 0 ? 7 : 0;
+        int enPassant = board.enPassant;
+        if(enPassant >= 0 && (bitboards[them * BitBoard.TYPES + PAWN] & (1L << (enPassant ^ 8))) == 0) {
+            enPassant = -1;
+        }
+        for(long pawns = bitboards[base + PAWN]; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int to = from + forward;
+            if(to >= 0 && to < 64 && (occupied & (1L << to)) == 0) {
+                if(to >>> 3 == lastRank) {
+                    n = addPromotions(moves, n, from, to, false);
+                } else {
+                    moves[n++] = Move.of(from, to, Move.QUIET);
+                    int twoSquares = to + forward;
+                    if(from >>> 3 == startRank && (occupied & (1L << twoSquares)) == 0) {
+                        moves[n++] = Move.of(from, twoSquares, Move.DOUBLE_PUSH);
+                    }
+                }
+            }
+            long attacks = Attacks.pawn(us, from);
+            for(long targets = attacks & enemy; targets != 0; targets &= targets - 1) {
+                int target = Long.numberOfTrailingZeros(targets);
+                if(target >>> 3 == lastRank) {
+                    n = addPromotions(moves, n, from, target, true);
+                } else {
+                    moves[n++] = Move.of(from, target, Move.CAPTURE);
+                }
+            }
+            if(enPassant >= 0 && (attacks & (1L << enPassant)) != 0) {
+                moves[n++] = Move.of(from, enPassant, Move.EN_PASSANT);
+            }
+        }
+
+        for(long knights = bitboards[base + KNIGHT]; knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            n = addTargets(moves, n, from, Attacks.knight(from) & ~own, enemy);
+        }
+        for(long bishops = bitboards[base + BISHOP]; bishops != 0; bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            n = addTargets(moves, n, from, Attacks.bishop(from, occupied) & ~own, enemy);
+        }
+        for(long rooks = bitboards[base + ROOK]; rooks != 0; rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            n = addTargets(moves, n, from, Attacks.rook(from, occupied) & ~own, enemy);
+        }
+        for(long queens = bitboards[base + QUEEN]; queens != 0; queens &= queens - 1) {
+            int from = Long.numberOfTrailingZeros(queens);
+            n = addTargets(moves, n, from, Attacks.queen(from, occupied) & ~own, enemy);
+        }
+        for(long kings = bitboards[base + KING]; kings != 0; kings &= kings - 1) {
+            int from = Long.numberOfTrailingZeros(kings);
+            n = addTargets(moves, n, from, Attacks.king(from) & ~own, enemy);
+        }
+
+        // Castling, the king may not leave, pass or land on an attacked square
+        int home = us == 0 ? 0 : 56;
+        int rights = board.castling >>> (us << 1);
+        long rooks = bitboards[base + ROOK];
+        if((rights & 3) != 0 && (bitboards[base + KING] & (1L << (home + 4))) != 0 && !attacked(board, home + 4, them, occupied, 0)) {
+            if((rights & BitBoard.WHITE_KING_SIDE) != 0 && (occupied & (0x60L << home)) == 0 && (rooks & (1L << (home + 7))) != 0
+                    && !attacked(board, home + 5, them, occupied, 0) && !attacked(board, home + 6, them, occupied, 0)) {
+                moves[n++] = Move.of(home + 4, home + 6, Move.KING_CASTLE);
+            }
+            if((rights & BitBoard.WHITE_QUEEN_SIDE) != 0 && (occupied & (0x0EL << home)) == 0 && (rooks & (1L << home)) != 0
+                    && !attacked(board, home + 3, them, occupied, 0) && !attacked(board, home + 2, them, occupied, 0)) {
+                moves[n++] = Move.of(home + 4, home + 2, Move.QUEEN_CASTLE);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Checks whether a pseudo-legal move keeps the own king out of check
+     * @param board The board
+     * @param side The side making the move
+     * @param move The move, as generated by {@link #generate(BitBoard, Side, int[])}
+     * @return {@code true} if the move is legal
+     */
+    public static boolean isLegal(BitBoard board, Side side, int move) {
+        int us = side.ordinal();
+        long kings = board.bitboards[us * BitBoard.TYPES + KING];
+        if(kings == 0) return true;
+        int from = Move.from(move);
+        int to = Move.to(move);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        long captured = Move.isEnPassant(move) ? 1L << (to ^ 8) : Move.isCapture(move) ? toBit : 0;
+        long occupied = ((board.occupancy[0] | board.occupancy[1]) ^ fromBit ^ captured) | toBit;
+        int king = (kings & fromBit) != 0 ? to : Long.numberOfTrailingZeros(kings);
+        return !attacked(board, king, us ^ 1, occupied, captured);
+    }
+
+    /**
+     * Checks whether a square is attacked by any piece of a side
+     * @param board The board
+     * @param square The square index, {@code y * 8 + x}
+     * @param by The attacking side
+     * @return {@code true} if any piece of the side attacks the square
+     */
+    public static boolean isAttacked(BitBoard board, int square, Side by) {
+        return attacked(board, square, by.ordinal(), board.occupancy[0] | board.occupancy[1], 0);
+    }
+
+    /**
+     * Finds the pieces giving check to the king of a side
+     * @param board The board
+     * @param side The side of the king
+     * @return The mask of the checking pieces, {@code 0} if the side has no king
+     */
+    public static long checkers(BitBoard board, Side side) {
+        long kings = board.bitboards[side.ordinal() * BitBoard.TYPES + KING];
+        if(kings == 0) return 0;
+        return attackers(board, Long.numberOfTrailingZeros(kings), side.ordinal() ^ 1, board.occupancy[0] | board.occupancy[1]);
+    }
+
+    /**
+     * Finds the pieces of a side that may not leave the line between their
+     * king and an enemy slider without exposing the king
+     * @param board The board
+     * @param side The side of the pieces
+     * @return The mask of the pinned pieces, {@code 0} if the side has no king
+     */
+    public static long pinned(BitBoard board, Side side) {
+        int us = side.ordinal();
+        long kings = board.bitboards[us * BitBoard.TYPES + KING];
+        if(kings == 0) return 0;
+        return pinned(board, us, Long.numberOfTrailingZeros(kings), board.occupancy[0] | board.occupancy[1]);
+    }
+
+    private static long pinned(BitBoard board, int us, int king, long occupied) {
+        long[] bitboards = board.bitboards;
+        int base = (us ^ 1) * BitBoard.TYPES;
+        long snipers = (Attacks.rook(king, 0) & (bitboards[base + ROOK] | bitboards[base + QUEEN]))
+                | (Attacks.bishop(king, 0) & (bitboards[base + BISHOP] | bitboards[base + QUEEN]));
+        long ret = 0;
+        for(; snipers != 0; snipers &= snipers - 1) {
+            long between = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if(between != 0 && (between & (between - 1)) == 0) ret |= between;
+        }
+        return ret & board.occupancy[us];
+    }
+
+    /**
+     * Checks whether a side has any legal move, stopping at the first one found.
+     * Checkers and pinned pieces restrict the targets of each piece up front,
+     * so no move is made and nothing is allocated.
+     * @param board The board
+     * @param side The side to look for moves of
+     * @return {@code true} if the side has a legal move
+     * @throws IllegalArgumentException if the board is not 8x8
+     */
+    public static boolean hasLegalMove(BitBoard board, Side side) {
+        if(!board.packed) throw new IllegalArgumentException("Move generation requires an 8x8 board");
+        int us = side.ordinal();
+        int them = us ^ 1;
+        long[] bitboards = board.bitboards;
+        long own = board.occupancy[us];
+        long enemy = board.occupancy[them];
+        long occupied = own | enemy;
+        int base = us * BitBoard.TYPES;
+
+        // Squares a piece other than the king may move to
+        long allowed = ~own;
+        long pinned = 0;
+        long kings = bitboards[base + KING];
+        int king = Long.numberOfTrailingZeros(kings);
+        if(kings != 0) {
+            // The king itself may not hide behind its own square from a slider
+            long kingless = occupied ^ kings;
+            for(long targets = Attacks.king(king) & ~own; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if(!attacked(board, to, them, kingless, 1L << to)) return true;
+            }
+            long checkers = attackers(board, king, them, occupied);
+            if((checkers & (checkers - 1)) != 0) return false;
+            if(checkers != 0) allowed = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+            pinned = pinned(board, us, king, occupied);
+        }
+
+        for(long knights = bitboards[base + KNIGHT] & ~pinned; knights != 0; knights &= knights - 1) {
+            if((Attacks.knight(Long.numberOfTrailingZeros(knights)) & allowed) != 0) return true;
+        }
+        for(long sliders = bitboards[base + BISHOP] | bitboards[base + QUEEN]; sliders != 0; sliders &= sliders - 1) {
+            int from = Long.numberOfTrailingZeros(sliders);
+            long targets = Attacks.bishop(from, occupied) & allowed;
+            if((pinned & (1L << from)) != 0) targets &= Attacks.line(king, from);
+            if(targets != 0) return true;
+        }
+        for(long sliders = bitboards[base + ROOK] | bitboards[base + QUEEN]; sliders != 0; sliders &= sliders - 1) {
+            int from = Long.numberOfTrailingZeros(sliders);
+            long targets = Attacks.rook(from, occupied) & allowed;
+            if((pinned & (1L << from)) != 0) targets &= Attacks.line(king, from);
+            if(targets != 0) return true;
+        }
+
+        int forward = us == 0 ? 8 : -8;
+        int startRank = us == 0 ? 1 : 6;
+        for(long pawns = bitboards[base + PAWN]; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long targets = Attacks.pawn(us, from) & enemy;
+            int to = from + forward;
+            if(to >= 0 && to < 64 && (occupied & (1L << to)) == 0) {
+                targets |= 1L << to;
+                int twoSquares = to + forward;
+                if(from >>> 3 == startRank && (occupied & (1L << twoSquares)) == 0) targets |= 1L << twoSquares;
+            }
+            targets &= allowed;
+            if((pinned & (1L << from)) != 0) targets &= Attacks.line(king, from);
+            if(targets != 0) return true;
+        }
+
+        // En passant may uncover the king along the rank, hence checked in full
+        int enPassant = board.enPassant;
+        if(enPassant >= 0 && (bitboards[them * BitBoard.TYPES + PAWN] & (1L << (enPassant ^ 8))) != 0) {
+            for(long pawns = bitboards[base + PAWN] & Attacks.pawn(them, enPassant); pawns != 0; pawns &= pawns - 1) {
+                if(isLegal(board, side, Move.of(Long.numberOfTrailingZeros(pawns), enPassant, Move.EN_PASSANT))) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The pieces of a side attacking a square
+     */
+    private static long attackers(BitBoard board, int square, int by, long occupied) {
+        long[] bitboards = board.bitboards;
+        int base = by * BitBoard.TYPES;
+        return (Attacks.pawn(by ^ 1, square) & bitboards[base + PAWN])
+                | (Attacks.knight(square) & bitboards[base + KNIGHT])
+                | (Attacks.king(square) & bitboards[base + KING])
+                | (Attacks.bishop(square, occupied) & (bitboards[base + BISHOP] | bitboards[base + QUEEN]))
+                | (Attacks.rook(square, occupied) & (bitboards[base + ROOK] | bitboards[base + QUEEN]));
+    }
+
+    /**
+     * @param exclude Pieces to ignore, such as one that is about to be captured
+     */
+    static boolean attacked(BitBoard board, int square, int by, long occupied, long exclude) {
+        long[] bitboards = board.bitboards;
+        int base = by * BitBoard.TYPES;
+        long keep = ~exclude;
+        if((Attacks.pawn(by ^ 1, square) & bitboards[base + PAWN] & keep) != 0) return true;
+        if((Attacks.knight(square) & bitboards[base + KNIGHT] & keep) != 0) return true;
+        if((Attacks.king(square) & bitboards[base + KING]) != 0) return true;
+        long diagonal = (bitboards[base + BISHOP] | bitboards[base + QUEEN]) & keep;
+        if(diagonal != 0 && (Attacks.bishop(square, occupied) & diagonal) != 0) return true;
+        long straight = (bitboards[base + ROOK] | bitboards[base + QUEEN]) & keep;
+        return straight != 0 && (Attacks.rook(square, occupied) & straight) != 0;
+    }
+
+    private static int addTargets(int[] moves, int n, int from, long targets, long enemy) {
+        for(; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[n++] = Move.of(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+        }
+        return n;
+    }
+
+    private static int addPromotions(int[] moves, int n, int from, int to, boolean capture) {
+        moves[n++] = Move.of(from, to, Move.promotionFlags(PieceType.QUEEN, capture));
+        moves[n++] = Move.of(from, to, Move.promotionFlags(PieceType.KNIGHT, capture));
+        moves[n++] = Move.of(from, to, Move.promotionFlags(PieceType.ROOK, capture));
+        moves[n++] = Move.of(from, to, Move.promotionFlags(PieceType.BISHOP, capture));
+        return n;
+    }
+}
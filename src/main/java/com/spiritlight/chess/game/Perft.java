@@ -0,0 +1,58 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Counts the leaf nodes of the legal move tree up to a fixed depth,
+ * the usual way of verifying and timing move generation.
+ * <p>
+ * A driver keeps a scratch board and a move buffer holding every ply,
+ * and walks the tree with {@link BitBoard#makeMove(int)} and
+ * {@link BitBoard#unmakeMove()}, so counting does not allocate.
+ * Instances are not thread-safe.
+ */
+public final class Perft {
+    private final int maxDepth;
+    private final int[] moves;
+    private BitBoard board;
+
+    /**
+     * Creates a driver for a given maximum depth
+     * @param maxDepth The deepest depth this driver can count
+     */
+    public Perft(int maxDepth) {
+        if(maxDepth < 1) throw new IllegalArgumentException("Depth must be at least 1");
+        this.maxDepth = maxDepth;
+        this.moves = new int[MoveGenerator.MAX_MOVES * maxDepth];
+    }
+
+    /**
+     * Counts the leaf nodes
+     * @param board The position to count from, it is left untouched
+     * @param side The side to move
+     * @param depth The depth to count at
+     * @return The number of leaf nodes, {@code 1} if depth is {@code 0}
+     */
+    public long count(BitBoard board, Side side, int depth) {
+        if(depth > maxDepth) throw new IllegalArgumentException("Depth " + depth + " exceeds maximum depth " + maxDepth);
+        if(depth <= 0) return 1;
+        if(this.board == null || this.board.x != board.x || this.board.y != board.y) {
+            this.board = board.copy();
+        } else {
+            this.board.copyFrom(board);
+        }
+        return count(side, depth, 0);
+    }
+
+    private long count(Side side, int depth, int offset) {
+        int end = MoveGenerator.generateLegal(board, side, moves, offset);
+        if(depth == 1) return end - offset;
+        long nodes = 0;
+        for(int i = offset; i < end; i++) {
+            board.makeMove(moves[i]);
+            nodes += count(side.other(), depth - 1, end);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+}
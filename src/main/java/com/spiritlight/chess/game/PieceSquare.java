@@ -0,0 +1,132 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Material and placement value of each piece on each square, in centipawns
+ * from the view of white. The value of a position is the sum over its pieces,
+ * so boards keep it up to date by adding and subtracting what a move changes.
+ * <p>
+ * Placement follows the tables of the Simplified Evaluation Function, and
+ * only counts on 8x8 boards; larger boards score material alone.
+ */
+public final class PieceSquare {
+    /**
+     * Material value, in {@link PieceType} order
+     */
+    static final int[] MATERIAL = {100, 320, 330, 500, 900, 0};
+
+    /**
+     * Placement bonus of each type, listed from the 8th rank down as seen by white
+     */
+    private static final int[][] PLACEMENT = {
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0
+            },
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            {
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0
+            },
+            {
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20
+            },
+            {
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20
+            }
+    };
+
+    /**
+     * Values indexed by {@code code * 64 + square}
+     */
+    private static final int[] VALUES = new int[16 * 64];
+
+    static {
+        for(int type = 0; type < PLACEMENT.length; type++) {
+            int white = PieceType.of(type).code(Side.WHITE);
+            int black = PieceType.of(type).code(Side.BLACK);
+            for(int square = 0; square < 64; square++) {
+                int rank = square >>> 3;
+                int file = square & 7;
+                VALUES[white << 6 | square] = MATERIAL[type] + PLACEMENT[type][(7 - rank) << 3 | file];
+                VALUES[black << 6 | square] = -(MATERIAL[type] + PLACEMENT[type][rank << 3 | file]);
+            }
+        }
+    }
+
+    private PieceSquare() {
+    }
+
+    /**
+     * @param code The piece code
+     * @param square The square of an 8x8 board
+     * @return The value of the piece on the square
+     */
+    static int value(int code, int square) {
+        return VALUES[code << 6 | square];
+    }
+
+    /**
+     * @param type The piece type
+     * @return The material value of a piece of the type, in centipawns
+     */
+    public static int material(PieceType type) {
+        return MATERIAL[type.ordinal()];
+    }
+
+    /**
+     * @param code The piece code
+     * @return The material value of the piece, negated for black
+     */
+    static int material(int code) {
+        int value = MATERIAL[PieceType.typeOf(code)];
+        return PieceType.sideOf(code) == 0 ? value : -value;
+    }
+}
@@ -0,0 +1,175 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.AbstractPiece;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.Side;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable position of a board: the piece code of every square (see
+ * {@link PieceType#code(Side)}), the side to move, castling and en passant
+ * rights and the move counters.
+ * <br /> <br />
+ * A snapshot is a single copy of the square codes, 64 bytes on a classic
+ * board, and a board hands out the same snapshot until it changes, see
+ * {@link BitBoard#snapshot()}. It may therefore be held, queued and
+ * persisted without copying, and outlives the board it was taken from.
+ */
+public final class PositionSnapshot {
+    private final int x;
+    private final int y;
+    private final byte[] squares;
+    private final Side sideToMove;
+    private final int castling;
+    private final int enPassant;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long key;
+    private Map<Location, AbstractPiece> layout;
+
+    PositionSnapshot(BitBoard board) {
+        this.x = board.x;
+        this.y = board.y;
+        this.squares = board.squares.clone();
+        this.sideToMove = board.sideToMove;
+        this.castling = board.castling;
+        this.enPassant = board.enPassant;
+        this.halfmoveClock = board.halfmoveClock;
+        this.fullmoveNumber = board.fullmoveNumber;
+        this.key = board.key;
+    }
+
+    /**
+     * @return The maximum x coordinate of the board
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return The maximum y coordinate of the board
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @param square The square index, {@code y * (getX() + 1) + x}
+     * @return The piece code on the square, or {@link PieceType#EMPTY}
+     */
+    public int getPieceCode(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @param location The location
+     * @return The piece code on the location, or {@link PieceType#EMPTY}
+     * if there is none or the location is outside the board
+     */
+    public int getPieceCode(Location location) {
+        if(location.x() < 0 || location.x() > x || location.y() < 0 || location.y() > y) return PieceType.EMPTY;
+        return squares[location.y() * (x + 1) + location.x()];
+    }
+
+    /**
+     * @return The number of squares of the board
+     */
+    public int size() {
+        return squares.length;
+    }
+
+    /**
+     * Gets the mask of all pieces of a type and side
+     * @return The mask, bit {@code y * 8 + x} set for each piece
+     * @throws IllegalStateException if the board is not 8x8
+     */
+    public long getPieces(Side side, PieceType type) {
+        if(squares.length != 64) throw new IllegalStateException("Masks are only available on 8x8 boards");
+        int code = type.code(side);
+        long mask = 0;
+        for(int square = 0; square < 64; square++) {
+            if(squares[square] == code) mask |= 1L << square;
+        }
+        return mask;
+    }
+
+    public Side getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return The castling rights, see {@link BitBoard#WHITE_KING_SIDE} and others
+     */
+    public int getCastlingRights() {
+        return castling;
+    }
+
+    /**
+     * @return The square index a pawn may capture onto en passant, or {@code -1}
+     */
+    public int getEnPassantSquare() {
+        return enPassant;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return The Zobrist key of the position, see {@link BitBoard#positionKey()}
+     */
+    public long positionKey() {
+        return key;
+    }
+
+    /**
+     * @return A copy of the piece codes, indexed by square
+     */
+    public byte[] toArray() {
+        return squares.clone();
+    }
+
+    /**
+     * Builds a layout of the position from new piece objects, which are not bound
+     * to any board. The layout is built once, on the first call.
+     * @return An immutable map of the pieces by location
+     */
+    public synchronized Map<Location, AbstractPiece> toPieceMap() {
+        if(layout == null) {
+            Map<Location, AbstractPiece> map = new LinkedHashMap<>();
+            for(int square = 0; square < squares.length; square++) {
+                int code = squares[square];
+                if(code == PieceType.EMPTY) continue;
+                Location location = Location.of(square % (x + 1), square / (x + 1));
+                Side side = PieceType.sideOf(code) == 0 ? Side.WHITE : Side.BLACK;
+                map.put(location, PieceType.of(PieceType.typeOf(code)).create(null, location, side));
+            }
+            layout = Collections.unmodifiableMap(map);
+        }
+        return layout;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof PositionSnapshot that)) return false;
+        return x == that.x && y == that.y && key == that.key
+                && sideToMove == that.sideToMove && castling == that.castling && enPassant == that.enPassant
+                && halfmoveClock == that.halfmoveClock && fullmoveNumber == that.fullmoveNumber
+                && Arrays.equals(squares, that.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+}
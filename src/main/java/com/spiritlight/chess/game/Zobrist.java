@@ -0,0 +1,79 @@
+package com.spiritlight.chess.game;
+
+/**
+ * Random keys for Zobrist hashing: the key of a position is the XOR of
+ * the keys of its pieces, castling rights, en passant file and side to move,
+ * so boards can keep it up to date by XOR-ing only what a move changes.
+ * <p>
+ * Keys are derived from a fixed seed and therefore stay the same
+ * across runs, which makes them safe to persist.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5EED_C4E5_5B0A_2D00L;
+    /**
+     * Piece keys for the first 64 squares, indexed by {@code code * 64 + square}
+     */
+    private static final long[] PIECES = new long[16 * 64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long SIDE;
+
+    static {
+        long state = SEED;
+        for(int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+        // No rights at all hash to nothing, so that an empty board has a key of 0
+        for(int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+        for(int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = mix(state += 0x9E3779B97F4A7C15L);
+        }
+        SIDE = mix(state + 0x9E3779B97F4A7C15L);
+    }
+
+    private Zobrist() {
+
+    }
+
+    /**
+     * @param code The piece code
+     * @param square The square index, boards larger than 8x8 may exceed {@code 63}
+     * @return The key of the piece standing on the square
+     */
+    public static long piece(int code, int square) {
+        if(square < 64) return PIECES[code << 6 | square];
+        return mix(SEED ^ ((long) code << 32 | square));
+    }
+
+    /**
+     * @param rights The castling rights, see {@link BitBoard#WHITE_KING_SIDE} and others
+     * @return The key of the rights, {@code 0} if there are none
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param square The en passant square, or {@code -1}
+     * @return The key of the en passant file, {@code 0} if there is none
+     */
+    public static long enPassant(int square) {
+        return square < 0 ? 0 : EN_PASSANT[square & 7];
+    }
+
+    /**
+     * @return The key XOR-ed in whenever black is to move
+     */
+    public static long side() {
+        return SIDE;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,115 @@
+package com.spiritlight.chess.pgn;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A game of a PGN archive: its tags, its moves as encoded by
+ * {@link com.spiritlight.chess.game.Move} and its result.
+ * <br /> <br />
+ * Games read from an archive whose moves could not all be resolved
+ * keep the moves up to the failing one, see {@link #getError()}.
+ */
+public final class PgnGame {
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNKNOWN = "*";
+
+    private final Map<String, String> tags;
+    private final int[] moves;
+    private final String result;
+    private final String error;
+
+    /**
+     * Creates a game
+     * @param tags The tags, in the order to write them
+     * @param moves The moves, from the position of the {@code FEN} tag if
+     *              present, the classic layout otherwise
+     * @param result The result, one of {@link #WHITE_WINS}, {@link #BLACK_WINS},
+     *               {@link #DRAW} or {@link #UNKNOWN}
+     */
+    public PgnGame(Map<String, String> tags, int[] moves, String result) {
+        this(tags, moves, result, null);
+    }
+
+    PgnGame(Map<String, String> tags, int[] moves, String result, @Nullable String error) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.moves = moves.clone();
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * @return The tags of this game, in order
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public @Nullable String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return A copy of the moves of this game
+     */
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * @return Why reading the moves stopped early, or {@code null} if the game
+     * was read completely
+     */
+    public @Nullable String getError() {
+        return error;
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * @return The position this game starts from, in Forsyth-Edwards Notation
+     */
+    public String getStartingFen() {
+        String fen = tags.get("FEN");
+        return fen == null ? Board.STARTING_FEN : fen;
+    }
+
+    /**
+     * Replays this game onto a board, overwriting its position
+     * @param board The board to replay onto, an 8x8 board
+     */
+    public void replay(BitBoard board) {
+        board.setFen(getStartingFen());
+        for(int move : moves) {
+            board.makeMove(move);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PgnGame[" + tags.getOrDefault("White", "?") + " - " + tags.getOrDefault("Black", "?")
+                + ", moves=" + moves.length + ", result=" + result + "]";
+    }
+}
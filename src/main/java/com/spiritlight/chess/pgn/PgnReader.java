@@ -0,0 +1,304 @@
+package com.spiritlight.chess.pgn;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the games of a PGN archive one at a time, resolving every move
+ * against the position it is played in.
+ * <br /> <br />
+ * The archive is read through a channel into a fixed buffer, so archives
+ * of any size are read in constant memory. Comments, variations and numeric
+ * annotations are skipped. A game with a move that cannot be resolved is
+ * still returned, holding the moves before it and the reason, see
+ * {@link PgnGame#getError()}.
+ * <p>
+ * Readers are not thread-safe; {@link #stream(Path)} reads sequentially.
+ */
+public final class PgnReader implements Iterator<PgnGame>, Closeable {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final byte[] bytes = buffer.array();
+    private int position;
+    private int limit;
+    private boolean eof;
+    private long line = 1;
+
+    private final StringBuilder token = new StringBuilder(32);
+    private byte[] value = new byte[128];
+    private final BitBoard board = new BitBoard(7, 7);
+    private final San san = new San();
+    private int[] moves = new int[256];
+    private PgnGame next;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens an archive for reading
+     * @param path The archive
+     * @return A reader over the games of the archive
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Streams the games of an archive, the stream should be closed
+     * to release the file
+     * @param path The archive
+     * @return A sequential stream of the games
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<PgnGame> stream(Path path) throws IOException {
+        PgnReader reader = open(path);
+        Spliterator<PgnGame> spliterator = Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @throws UncheckedIOException if reading fails
+     */
+    @Override
+    public boolean hasNext() {
+        if(next == null) {
+            try {
+                next = readGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * @throws UncheckedIOException if reading fails
+     */
+    @Override
+    public PgnGame next() {
+        if(!hasNext()) throw new NoSuchElementException();
+        PgnGame ret = next;
+        next = null;
+        return ret;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private PgnGame readGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        int count = 0;
+        boolean moveText = false;
+        String result = null;
+        String error = null;
+
+        loop:
+        while(true) {
+            int c = skipSpaces();
+            switch(c) {
+                case -1:
+                    break loop;
+                case '[':
+                    // A new game started without a result
+                    if(moveText) break loop;
+                    readTag(tags);
+                    continue;
+                case '{':
+                    skipUntil('}');
+                    continue;
+                case ';':
+                case '%':
+                    skipUntil('\n');
+                    continue;
+                case '(':
+                    skipVariation();
+                    continue;
+                case ')':
+                    read();
+                    continue;
+                case '$':
+                    read();
+                    while(isDigit(peek())) read();
+                    continue;
+                default:
+                    break;
+            }
+
+            readToken();
+            if(!moveText) {
+                moveText = true;
+                String fen = tags.get("FEN");
+                try {
+                    board.setFen(fen == null ? Board.STARTING_FEN : fen);
+                } catch (IllegalArgumentException e) {
+                    error = "Invalid FEN tag at line " + line;
+                }
+            }
+            if(isResult(token)) {
+                result = token.toString();
+                break;
+            }
+            // Move numbers, possibly attached to the move
+            int start = 0;
+            while(start < token.length() && isDigit(token.charAt(start))) start++;
+            if(start < token.length() && token.charAt(start) == '.') {
+                while(start < token.length() && token.charAt(start) == '.') start++;
+            } else {
+                start = 0;
+            }
+            if(start == token.length() || error != null) continue;
+
+            int move = san.parse(board, token, start, token.length());
+            if(move == Move.NONE) {
+                error = "Illegal move " + token.subSequence(start, token.length()) + " at line " + line;
+                continue;
+            }
+            board.playMove(move);
+            if(count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+            moves[count++] = move;
+        }
+        if(tags.isEmpty() && !moveText) return null;
+        return new PgnGame(tags, Arrays.copyOf(moves, count), result == null ? PgnGame.UNKNOWN : result, error);
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException {
+        read(); // [
+        skipSpaces();
+        token.setLength(0);
+        for(int c = peek(); c >= 0 && c != '"' && c != ']' && !isSpace(c); c = peek()) {
+            token.append((char) read());
+        }
+        skipSpaces();
+        int length = 0;
+        if(peek() == '"') {
+            read();
+            for(int c = read(); c >= 0 && c != '"'; c = read()) {
+                if(c == '\\') {
+                    c = read();
+                    if(c < 0) break;
+                }
+                if(length == value.length) value = Arrays.copyOf(value, length * 2);
+                value[length++] = (byte) c;
+            }
+        }
+        skipUntil(']');
+        if(token.length() > 0) {
+            tags.put(token.toString(), new String(value, 0, length, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void readToken() throws IOException {
+        token.setLength(0);
+        for(int c = peek(); c >= 0 && !isSpace(c) && !isDelimiter(c); c = peek()) {
+            token.append((char) read());
+        }
+        // A delimiter on its own, such as a stray '}'
+        if(token.length() == 0) token.append((char) read());
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        for(int c = read(); c >= 0; c = read()) {
+            if(c == '(') {
+                depth++;
+            } else if(c == ')') {
+                if(--depth == 0) return;
+            } else if(c == '{') {
+                skipUntil('}');
+            } else if(c == ';') {
+                skipUntil('\n');
+            }
+        }
+    }
+
+    /**
+     * Skips past the next occurrence of a character
+     */
+    private void skipUntil(int end) throws IOException {
+        for(int c = read(); c >= 0 && c != end; c = read()) {
+            // Skipped
+        }
+    }
+
+    /**
+     * @return The next character that is not a space, without reading it
+     */
+    private int skipSpaces() throws IOException {
+        int c = peek();
+        while(c >= 0 && (isSpace(c) || c == 0xEF || c == 0xBB || c == 0xBF)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if(position == limit && !fill()) return -1;
+        return bytes[position] & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if(position == limit && !fill()) return -1;
+        int c = bytes[position++] & 0xFF;
+        if(c == '\n') line++;
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        if(eof) return false;
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while(read == 0);
+        if(read < 0) {
+            eof = true;
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private static boolean isResult(CharSequence token) {
+        return PgnGame.WHITE_WINS.contentEquals(token) || PgnGame.BLACK_WINS.contentEquals(token)
+                || PgnGame.DRAW.contentEquals(token) || PgnGame.UNKNOWN.contentEquals(token);
+    }
+
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == '{' || c == '}' || c == '(' || c == ')' || c == '[' || c == ']' || c == ';' || c == '$';
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
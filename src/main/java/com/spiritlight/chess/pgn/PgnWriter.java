@@ -0,0 +1,132 @@
+package com.spiritlight.chess.pgn;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.utils.Side;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes games in the PGN export format: the seven tag roster first, then the
+ * other tags, and the moves in SAN wrapped at 80 columns.
+ * <br /> <br />
+ * Each game is formatted into a reused buffer and handed to the output at once.
+ * Writers are not thread-safe.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+    private static final int LINE_LENGTH = 80;
+    /**
+     * The seven tag roster, and the value of each tag when missing
+     */
+    private static final String[][] ROSTER = {
+            {"Event", "?"}, {"Site", "?"}, {"Date", "????.??.??"}, {"Round", "?"},
+            {"White", "?"}, {"Black", "?"}, {"Result", null}
+    };
+
+    private final Appendable out;
+    private final StringBuilder game = new StringBuilder(1024);
+    private final StringBuilder move = new StringBuilder(16);
+    private final BitBoard board = new BitBoard(7, 7);
+    private final San san = new San();
+
+    public PgnWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates or overwrites an archive for writing
+     * @param path The archive
+     * @return A writer to the archive, which should be closed once done
+     * @throws IOException if the file cannot be opened
+     */
+    public static PgnWriter open(Path path) throws IOException {
+        return new PgnWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a game
+     * @param pgn The game, its moves must be legal
+     * @throws IOException if writing fails
+     */
+    public void write(PgnGame pgn) throws IOException {
+        game.setLength(0);
+        Map<String, String> tags = pgn.getTags();
+        for(String[] tag : ROSTER) {
+            String value = tag[1] == null ? pgn.getResult() : tags.getOrDefault(tag[0], tag[1]);
+            writeTag(tag[0], value);
+        }
+        for(Map.Entry<String, String> tag : tags.entrySet()) {
+            if(!isRosterTag(tag.getKey())) writeTag(tag.getKey(), tag.getValue());
+        }
+        game.append('\n');
+
+        board.setFen(pgn.getStartingFen());
+        int lineStart = game.length();
+        for(int i = 0; i < pgn.getMoveCount(); i++) {
+            move.setLength(0);
+            if(board.getSideToMove() == Side.WHITE) {
+                move.append(board.getFullmoveNumber()).append(". ");
+            } else if(i == 0) {
+                move.append(board.getFullmoveNumber()).append("... ");
+            }
+            int encoded = pgn.getMove(i);
+            san.write(board, encoded, move);
+            board.playMove(encoded);
+            lineStart = appendWrapped(move, lineStart);
+        }
+        move.setLength(0);
+        move.append(pgn.getResult());
+        appendWrapped(move, lineStart);
+        game.append("\n\n");
+        out.append(game);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if(out instanceof Flushable flushable) flushable.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(out instanceof Closeable closeable) closeable.close();
+    }
+
+    /**
+     * Appends a token of movetext, starting a new line if it does not fit
+     * @return The index the current line starts at
+     */
+    private int appendWrapped(CharSequence token, int lineStart) {
+        if(game.length() > lineStart) {
+            if(game.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+                game.append('\n');
+                lineStart = game.length();
+            } else {
+                game.append(' ');
+            }
+        }
+        game.append(token);
+        return lineStart;
+    }
+
+    private void writeTag(String name, String value) {
+        game.append('[').append(name).append(" \"");
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\') game.append('\\');
+            game.append(c);
+        }
+        game.append("\"]\n");
+    }
+
+    private static boolean isRosterTag(String name) {
+        for(String[] tag : ROSTER) {
+            if(tag[0].equals(name)) return true;
+        }
+        return false;
+    }
+}
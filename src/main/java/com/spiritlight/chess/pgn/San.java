@@ -0,0 +1,216 @@
+package com.spiritlight.chess.pgn;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.MoveGenerator;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+/**
+ * Converts moves from and to Standard Algebraic Notation, such as {@code Nbd7},
+ * {@code exd5}, {@code e8=Q+} or {@code O-O}, against the position of a board.
+ * <br /> <br />
+ * Moves are resolved among the legal moves of the side to move, and neither
+ * direction allocates beyond the text written. Only the moves matching the
+ * text are checked for legality. An instance holds its own
+ * move buffer and is not thread-safe.
+ */
+public final class San {
+    private static final String PIECES = "PNBRQK";
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES * 2];
+
+    /**
+     * Resolves a move in SAN, annotations such as {@code +}, {@code #},
+     * {@code !} and {@code ?} are ignored
+     * @param board The position, an 8x8 board
+     * @param san The text holding the move
+     * @param start The index the move starts at
+     * @param end The index the move ends at, exclusive
+     * @return The move, or {@link Move#NONE} if it is malformed, illegal or ambiguous
+     */
+    public int parse(BitBoard board, CharSequence san, int start, int end) {
+        while(end > start && isAnnotation(san.charAt(end - 1))) end--;
+        if(end - start < 2) return Move.NONE;
+        Side side = board.getSideToMove();
+        int count = MoveGenerator.generate(board, side, moves, 0);
+
+        char first = san.charAt(start);
+        if(first == 'O' || first == '0') {
+            int flags = castleFlags(san, start, end);
+            if(flags < 0) return Move.NONE;
+            for(int i = 0; i < count; i++) {
+                if(Move.flags(moves[i]) == flags && MoveGenerator.isLegal(board, side, moves[i])) return moves[i];
+            }
+            return Move.NONE;
+        }
+
+        int type = PieceType.PAWN.ordinal();
+        int i = start;
+        if(first >= 'A' && first <= 'Z') {
+            type = PIECES.indexOf(first);
+            if(type < 0) return Move.NONE;
+            i++;
+        }
+
+        // Promotion suffix, with or without the '='
+        int promotion = -1;
+        char last = san.charAt(end - 1);
+        if(last >= 'A' && last <= 'Z') {
+            promotion = PIECES.indexOf(last);
+            if(promotion <= 0 || promotion == PieceType.KING.ordinal()) return Move.NONE;
+            end--;
+            if(end > i && san.charAt(end - 1) == '=') end--;
+        }
+
+        // Destination
+        if(end - i < 2) return Move.NONE;
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if(toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) return Move.NONE;
+        int to = toRank * 8 + toFile;
+        end -= 2;
+
+        // Disambiguation between the piece and the destination
+        int fromFile = -1;
+        int fromRank = -1;
+        for(; i < end; i++) {
+            char c = san.charAt(i);
+            if(c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if(c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if(c != 'x' && c != ':' && c != '-') {
+                return Move.NONE;
+            }
+        }
+
+        int found = Move.NONE;
+        for(int m = 0; m < count; m++) {
+            int move = moves[m];
+            if(Move.to(move) != to) continue;
+            int from = Move.from(move);
+            if(PieceType.typeOf(board.getPieceCode(from)) != type) continue;
+            if(fromFile >= 0 && (from & 7) != fromFile) continue;
+            if(fromRank >= 0 && (from >>> 3) != fromRank) continue;
+            if(Move.isPromotion(move)) {
+                // Promotions must name the piece
+                if(Move.promotion(move).ordinal() != promotion) continue;
+            } else if(promotion >= 0) {
+                continue;
+            }
+            if(!MoveGenerator.isLegal(board, side, move)) continue;
+            if(found != Move.NONE) return Move.NONE;
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Resolves a move in SAN
+     * @see #parse(BitBoard, CharSequence, int, int)
+     */
+    public int parse(BitBoard board, CharSequence san) {
+        return parse(board, san, 0, san.length());
+    }
+
+    /**
+     * Writes a legal move of the side to move in SAN, including the
+     * check or checkmate suffix
+     * @param board The position, an 8x8 board
+     * @param move The move
+     * @param out The builder to append to
+     */
+    public void write(BitBoard board, int move, StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if(Move.isCastle(move)) {
+            out.append(Move.flags(move) == Move.KING_CASTLE ? "O-O" : "O-O-O");
+        } else {
+            int type = PieceType.typeOf(board.getPieceCode(from));
+            if(type == PieceType.PAWN.ordinal()) {
+                if(Move.isCapture(move)) out.append((char) ('a' + (from & 7)));
+            } else {
+                out.append(PIECES.charAt(type));
+                disambiguate(board, move, type, out);
+            }
+            if(Move.isCapture(move)) out.append('x');
+            out.append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+            if(Move.isPromotion(move)) out.append('=').append(PIECES.charAt(Move.promotion(move).ordinal()));
+        }
+
+        board.makeMove(move);
+        Side side = board.getSideToMove();
+        long king = board.getPieces(side, PieceType.KING);
+        if(king != 0 && MoveGenerator.isAttacked(board, Long.numberOfTrailingZeros(king), side.other())) {
+            boolean mate = MoveGenerator.generateLegal(board, side, moves, MoveGenerator.MAX_MOVES) == MoveGenerator.MAX_MOVES;
+            out.append(mate ? '#' : '+');
+        }
+        board.unmakeMove();
+    }
+
+    /**
+     * Formats a legal move of the side to move in SAN
+     * @see #write(BitBoard, int, StringBuilder)
+     */
+    public String toString(BitBoard board, int move) {
+        StringBuilder sb = new StringBuilder(8);
+        write(board, move, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the file, rank or both of the source square if another piece
+     * of the same type could move to the same destination
+     */
+    private void disambiguate(BitBoard board, int move, int type, StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Side side = board.getSideToMove();
+        int count = MoveGenerator.generate(board, side, moves, 0);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for(int i = 0; i < count; i++) {
+            int other = Move.from(moves[i]);
+            if(Move.to(moves[i]) != to || other == from) continue;
+            if(PieceType.typeOf(board.getPieceCode(other)) != type) continue;
+            if(!MoveGenerator.isLegal(board, side, moves[i])) continue;
+            ambiguous = true;
+            if((other & 7) == (from & 7)) sameFile = true;
+            if((other >>> 3) == (from >>> 3)) sameRank = true;
+        }
+        if(!ambiguous) return;
+        if(!sameFile) {
+            out.append((char) ('a' + (from & 7)));
+        } else if(!sameRank) {
+            out.append((char) ('1' + (from >>> 3)));
+        } else {
+            out.append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)));
+        }
+    }
+
+    /**
+     * @return The castling flags of the text, or {@code -1} if it is not castling
+     */
+    private static int castleFlags(CharSequence san, int start, int end) {
+        int castles = 0;
+        for(int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if(c == 'O' || c == '0') {
+                castles++;
+            } else if(c != '-') {
+                return -1;
+            }
+        }
+        return switch(castles) {
+            case 2 -> Move.KING_CASTLE;
+            case 3 -> Move.QUEEN_CASTLE;
+            default -> -1;
+        };
+    }
+
+    private static boolean isAnnotation(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
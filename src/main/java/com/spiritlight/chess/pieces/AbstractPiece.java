@@ -2,6 +2,7 @@ package com.spiritlight.chess.pieces;
 
 import com.spiritlight.chess.events.CaptureEvent;
 import com.spiritlight.chess.game.AbstractBoard;
+import com.spiritlight.chess.game.BitBoard;
 import com.spiritlight.chess.game.GameBoard;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
@@ -9,6 +10,11 @@ import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 
+/**
+ * A piece of a game, standing on a board. The rules of each piece type
+ * live in its {@link MoveRule}, which pieces defer to with their location
+ * on their board.
+ */
 public abstract class AbstractPiece {
     UUID boardID;
     AbstractBoard gameBoard;
@@ -30,23 +36,56 @@ public abstract class AbstractPiece {
     /**
      * Whether this piece can move to the destination
      * @param destination The destination to move to
-     * @return Whether this move is legal
+     * @return Whether this move is legal, {@code false} if this piece
+     * is not on its board
+     * @throws IllegalStateException if the board of this piece is not a
+     * {@link BitBoard}, which the rules read
+     * @see MoveRule#canMove(BitBoard, int, int)
      */
-    public abstract boolean canMove(Location destination);
+    public boolean canMove(Location destination) {
+        if(gameBoard == null) return false;
+        if(!(gameBoard instanceof BitBoard board)) throw new IllegalStateException("Move rules are only available on a BitBoard");
+        int from = squareOf(board);
+        int to = board.indexOf(destination);
+        return from >= 0 && to >= 0 && getType().rule().canMove(board, from, to);
+    }
 
     /**
      * Gets the corresponding character to this piece
      */
     public abstract String character();
 
+    /**
+     * Gets the type of this piece
+     */
+    public abstract PieceType getType();
+
     /**
      * Checks whether the piece is blocked by anything from
      * a given vector
      * @param vector The vector indicating path of this piece movement
      * @return {@code true} if any piece is in the way,
      * {@code false} if no pieces are in its way, or the blocking piece is on the destination
+     * @see MoveRule#isBlocked(BitBoard, int, int)
      */
-    protected abstract boolean isBlocked(Vector vector);
+    protected boolean isBlocked(Vector vector) {
+        if(gameBoard instanceof BitBoard board) {
+            int from = squareOf(board);
+            int to = board.indexOf(location.apply(vector));
+            return from >= 0 && to >= 0 && getType().rule().isBlocked(board, from, to);
+        }
+        if(gameBoard == null) return false;
+        // Other boards are walked location by location
+        int dx = vector.x();
+        int dy = vector.y();
+        if(dx != 0 && dy != 0 && Math.abs(dx) != Math.abs(dy)) return false;
+        Vector step = Vector.of(Integer.signum(dx), Integer.signum(dy));
+        Location destination = location.apply(vector);
+        for(Location square = location.apply(step); !square.equals(destination); square = square.apply(step)) {
+            if(gameBoard.hasPiece(square)) return true;
+        }
+        return false;
+    }
 
     protected boolean isBlocked(Location location) {
         return isBlocked(Vector.of(this.location, location));
@@ -73,12 +112,21 @@ public abstract class AbstractPiece {
     public boolean move(Location destination) {
         if(!canMove(destination)) return false;
         if(gameBoard.hasPiece(destination) && gameBoard.getPiece(destination).side != this.side) {
-            CaptureEvent.fire(new CaptureEvent(gameBoard.getPiece(destination), this, destination, boardID));
+            gameBoard.fire(new CaptureEvent(gameBoard.getPiece(destination), this, destination, boardID));
         }
         initialMove = false;
         return true;
     }
 
+    /**
+     * @return The square of this piece, or {@code -1} if another piece is there
+     */
+    private int squareOf(BitBoard board) {
+        int square = board.indexOf(location);
+        if(square < 0 || board.getPieceCode(square) != getType().code(side)) return -1;
+        return square;
+    }
+
     public void setGameBoard(AbstractBoard gameBoard) {
         this.gameBoard = gameBoard;
     }
@@ -87,10 +135,25 @@ public abstract class AbstractPiece {
         return location;
     }
 
+    public void setLocation(Location location) {
+        this.location = location;
+    }
+
     public Side getSide() {
         return side;
     }
 
+    /**
+     * @return Whether this piece has not moved yet
+     */
+    public boolean isInitialMove() {
+        return initialMove;
+    }
+
+    public void setInitialMove(boolean initialMove) {
+        this.initialMove = initialMove;
+    }
+
     public UUID getBoardID() {
         return boardID;
     }
@@ -1,40 +1,36 @@
 package com.spiritlight.chess.pieces;
 
-import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.game.Attacks;
 import com.spiritlight.chess.utils.Location;
-import com.spiritlight.chess.utils.Locations;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
-import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
+import static java.lang.Math.abs;
 
 public class Bishop extends AbstractPiece {
+    /**
+     * Bishops slide diagonally up to the first piece
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(from == to || !MoveRule.isTarget(board, from, to)) return false;
+        if(board.isPacked()) return (Attacks.bishop(from, board.getOccupancy()) & (1L << to)) != 0;
+        int width = board.getX() + 1;
+        if(abs(to % width - from % width) != abs(to / width - from / width)) return false;
+        return !Bishop.RULE.isBlocked(board, from, to);
+    };
+
     public Bishop(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(!Locations.isDiagonal(location, destination)) return false;
-        return !gameBoard.isOutside(destination);
-    }
-
     @Override
     public String character() {
         return side == Side.WHITE ? "♗" : "♝";
     }
 
     @Override
-    protected boolean isBlocked(@NotNull Vector vector) {
-        if(!vector.isDiagonal()) return false;
-        if(vector.absoluteEquals(Vector.of(1, 1))) return false;
-        boolean xPos = vector.x() > 0;
-        boolean yPos = vector.y() > 0;
-        for(int i = 2; i < Math.abs(vector.x()); i++) {
-            if(gameBoard.hasPiece(location.apply(Vector.of(xPos ? i : -i, yPos ? i : -i)))) return false;
-        }
-        return true;
+    public PieceType getType() {
+        return PieceType.BISHOP;
     }
 
     @Override
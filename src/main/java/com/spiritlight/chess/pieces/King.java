@@ -1,25 +1,45 @@
 package com.spiritlight.chess.pieces;
 
-import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.game.BitBoard;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 import static java.lang.Math.abs;
 
 public class King extends AbstractPiece {
 
+    /**
+     * Kings step one square in any direction, or castle by moving two files
+     * towards a rook while the right to castle that way is kept
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(from == to || !MoveRule.isTarget(board, from, to)) return false;
+        int width = board.getX() + 1;
+        int dx = to % width - from % width;
+        if(abs(dx) <= 1 && abs(to / width - from / width) <= 1) return true;
+        return abs(dx) == 2 && to / width == from / width && canCastle(board, from, dx > 0);
+    };
+
     public King(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(gameBoard.isOutside(destination) || isBlocked(destination)) return false;
-        int x = location.x() - destination.x();
-        int y = location.y() - destination.y();
-        return abs(x) == 1 || abs(y) == 1;
+    /**
+     * Whether the king on a square may castle, with its rook still home and
+     * nothing in between. Castling rights are only kept on 8x8 boards.
+     */
+    private static boolean canCastle(BitBoard board, int from, boolean kingSide) {
+        if(!board.isPacked()) return false;
+        boolean white = PieceType.sideOf(board.getPieceCode(from)) == Side.WHITE.ordinal();
+        int home = white ? 0 : 56;
+        int right = kingSide
+                ? white ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE
+                : white ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+        int rook = kingSide ? home + 7 : home;
+        return from == home + 4 && (board.getCastlingRights() & right) != 0
+                && board.getPieceCode(rook) == PieceType.ROOK.code(white ? Side.WHITE : Side.BLACK)
+                && !King.RULE.isBlocked(board, from, rook);
     }
 
     @Override
@@ -28,8 +48,8 @@ public class King extends AbstractPiece {
     }
 
     @Override
-    protected boolean isBlocked(Vector vector) {
-        return !gameBoard.hasPiece(location.apply(vector)) || gameBoard.getPiece(location.apply(vector)).side == this.side;
+    public PieceType getType() {
+        return PieceType.KING;
     }
 
     @Override
@@ -2,33 +2,34 @@ package com.spiritlight.chess.pieces;
 
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 import static java.lang.Math.abs;
 
 public class Knight extends AbstractPiece {
+    /**
+     * Knights jump two squares along one axis and one along the other
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(!MoveRule.isTarget(board, from, to)) return false;
+        int width = board.getX() + 1;
+        int dx = abs(to % width - from % width);
+        int dy = abs(to / width - from / width);
+        return dx == 1 && dy == 2 || dx == 2 && dy == 1;
+    };
+
     public Knight(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(gameBoard.isOutside(destination)) return false;
-        Vector move = Vector.of(location, destination);
-        int diff = abs(move.x()) - abs(move.y());
-        if(diff != 1) return false;
-        return abs(move.x()) <= 2 && abs(move.y()) <= 2;
-    }
-
     @Override
     public String character() {
         return side == Side.WHITE ? "♘" : "♞";
     }
 
     @Override
-    protected boolean isBlocked(Vector vector) {
-        return gameBoard.hasPiece(location.apply(vector)) && gameBoard.getPiece(location.apply(vector)).getSide() == this.side;
+    public PieceType getType() {
+        return PieceType.KNIGHT;
     }
 
     @Override
@@ -0,0 +1,58 @@
+package com.spiritlight.chess.pieces;
+
+import com.spiritlight.chess.game.Attacks;
+import com.spiritlight.chess.game.BitBoard;
+
+/**
+ * The movement rules of a piece type. Rules hold no state and are shared by
+ * every piece of their type, see {@link PieceType#rule()}; the piece is
+ * described by the piece code on its square alone.
+ * <br /> <br />
+ * Squares are indexed as {@code y * width + x} on boards of any size. On 8x8
+ * boards, lines are looked up in the tables of {@link Attacks}.
+ * Rules tell where a piece may go, not whether the move leaves its king in
+ * check, nor whether a castling king leaves or passes an attacked square;
+ * see {@link com.spiritlight.chess.game.MoveGenerator} for legal moves.
+ */
+@FunctionalInterface
+public interface MoveRule {
+    /**
+     * Whether the piece on a square can move to another
+     * @param board The board
+     * @param from The square of the piece
+     * @param to The destination, may hold a piece of the other side
+     * @return Whether the move follows the rules of the piece
+     */
+    boolean canMove(BitBoard board, int from, int to);
+
+    /**
+     * Whether a piece stands between two squares of the same line, the
+     * squares themselves excluded
+     * @param board The board
+     * @param from The first square
+     * @param to The second square
+     * @return {@code true} if any piece is in the way, {@code false} if none is,
+     * or the squares do not share a rank, file or diagonal
+     */
+    default boolean isBlocked(BitBoard board, int from, int to) {
+        if(board.isPacked()) return (Attacks.between(from, to) & board.getOccupancy()) != 0;
+        int width = board.getX() + 1;
+        int dx = to % width - from % width;
+        int dy = to / width - from / width;
+        if(dx != 0 && dy != 0 && Math.abs(dx) != Math.abs(dy)) return false;
+        int step = Integer.signum(dy) * width + Integer.signum(dx);
+        for(int square = from + step; square != to; square += step) {
+            if(board.getPieceCode(square) != PieceType.EMPTY) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the destination is empty or holds a piece of the other side
+     * than the piece on the source
+     */
+    static boolean isTarget(BitBoard board, int from, int to) {
+        int target = board.getPieceCode(to);
+        return target == PieceType.EMPTY || PieceType.sideOf(target) != PieceType.sideOf(board.getPieceCode(from));
+    }
+}
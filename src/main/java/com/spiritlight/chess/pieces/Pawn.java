@@ -1,59 +1,61 @@
 package com.spiritlight.chess.pieces;
 
 import com.spiritlight.chess.events.CaptureEvent;
-import com.spiritlight.chess.events.PromotionEvent;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 
 public class Pawn extends AbstractPiece {
+    /**
+     * Pawns push one square forward, or two from the second rank, and capture one square diagonally forward,
+     * including the pawn that has just passed them with a double push
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(!MoveRule.isTarget(board, from, to)) return false;
+        int width = board.getX() + 1;
+        boolean white = PieceType.sideOf(board.getPieceCode(from)) == Side.WHITE.ordinal();
+        int forward = white ? 1 : -1;
+        int dx = to % width - from % width;
+        int dy = to / width - from / width;
+        boolean empty = board.getPieceCode(to) == PieceType.EMPTY;
+        if(dx == 0) {
+            if(!empty) return false;
+            if(dy == forward) return true;
+            // Double push from the second rank of the side
+            int rank = white ? 1 : board.getY() - 1;
+            return dy == 2 * forward && from / width == rank && board.getPieceCode(from + forward * width) == PieceType.EMPTY;
+        }
+        if(Math.abs(dx) != 1 || dy != forward) return false;
+        if(!empty) return true;
+        // En passant, the passed pawn stands beside the source
+        return to == board.getEnPassantSquare()
+                && board.getPieceCode(to - forward * width) == PieceType.PAWN.code(white ? Side.BLACK : Side.WHITE);
+    };
+
     public Pawn(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(destination.equals(location)) return false;
-        if(gameBoard.isOutside(destination)) return false;
-        Vector move = Vector.of(location, destination);
-        if(move.isDiagonal() && gameBoard.hasPiece(destination) && gameBoard.getPiece(destination).side != this.side && move.x() == 1) {
-            return true;
-        }
-        if(move.isHorizontal()) { // Inferred no forward movement is made
-            return false;
-        }
-        int forwardDistance = destination.y() - location.y();
-        return forwardDistance <= ((side == Side.WHITE ? 1 : -1) * (initialMove ? 2 : 1)) && move.isVertical();
-    }
-
     @Override
     public boolean move(Location destination) {
-        boolean ret = super.move(destination);
-        if(!ret) return false;
-        tryPromote();
+        boolean enPassant = destination.x() != location.x() && !gameBoard.hasPiece(destination);
+        if(!super.move(destination)) return false;
+        if(enPassant) {
+            Location passed = Location.of(destination.x(), location.y());
+            gameBoard.fire(new CaptureEvent(gameBoard.getPiece(passed), this, passed, boardID));
+        }
         return true;
     }
 
-    /**
-     * Makes an attempt to promote each time it moves.
-     */
-    private void tryPromote() {
-        gameBoard.onPromote(new PromotionEvent(this,
-                new Queen(this.boardID, this.location, this.side),
-                this.location,
-                this.boardID));
-    }
-
     @Override
     public String character() {
         return side == Side.WHITE ? "♙" : "♟";
     }
 
     @Override
-    protected boolean isBlocked(Vector vector) {
-        return !vector.isDiagonal() && gameBoard.hasPiece(location.apply(vector));
+    public PieceType getType() {
+        return PieceType.PAWN;
     }
 
     @Override
@@ -0,0 +1,91 @@
+package com.spiritlight.chess.pieces;
+
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.Side;
+
+import java.util.UUID;
+
+/**
+ * The kind of piece, independent of its side and location.
+ * <p>
+ * Boards storing pieces in a compact form encode a piece
+ * as a small integer via {@link #code(Side)}, where {@code 0}
+ * always stands for an empty square.
+ */
+public enum PieceType {
+    PAWN,
+    KNIGHT,
+    BISHOP,
+    ROOK,
+    QUEEN,
+    KING;
+
+    /**
+     * The code for an empty square
+     */
+    public static final int EMPTY = 0;
+
+    // values() clones the array on each call
+    private static final PieceType[] TYPES = values();
+
+    /**
+     * Encodes this type and the given side into a non-zero piece code
+     * @param side The side of the piece
+     * @return The piece code, {@code 1-6} for white and {@code 9-14} for black
+     */
+    public int code(Side side) {
+        return (side.ordinal() << 3) | (ordinal() + 1);
+    }
+
+    /**
+     * Creates a new piece of this type
+     * @param board The board ID
+     * @param location The location of the piece
+     * @param side The side of the piece
+     * @return A new piece instance
+     */
+    public AbstractPiece create(UUID board, Location location, Side side) {
+        return switch(this) {
+            case PAWN -> new Pawn(board, location, side);
+            case KNIGHT -> new Knight(board, location, side);
+            case BISHOP -> new Bishop(board, location, side);
+            case ROOK -> new Rook(board, location, side);
+            case QUEEN -> new Queen(board, location, side);
+            case KING -> new King(board, location, side);
+        };
+    }
+
+    /**
+     * @return The movement rules shared by all pieces of this type
+     */
+    public MoveRule rule() {
+        return switch(this) {
+            case PAWN -> Pawn.RULE;
+            case KNIGHT -> Knight.RULE;
+            case BISHOP -> Bishop.RULE;
+            case ROOK -> Rook.RULE;
+            case QUEEN -> Queen.RULE;
+            case KING -> King.RULE;
+        };
+    }
+
+    public static PieceType of(int ordinal) {
+        return TYPES[ordinal];
+    }
+
+    /**
+     * @param code The piece code, must not be {@link #EMPTY}
+     * @return The type ordinal of the given code
+     */
+    public static int typeOf(int code) {
+        return (code & 7) - 1;
+    }
+
+    /**
+     * @param code The piece code, must not be {@link #EMPTY}
+     * @return The side ordinal of the given code
+     */
+    public static int sideOf(int code) {
+        return code >>> 3;
+    }
+}
@@ -1,33 +1,34 @@
 package com.spiritlight.chess.pieces;
 
+import com.spiritlight.chess.game.Attacks;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 
 public class Queen extends AbstractPiece {
+    /**
+     * Queens move as either a rook or a bishop
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(from != to && board.isPacked()) {
+            return MoveRule.isTarget(board, from, to) && (Attacks.queen(from, board.getOccupancy()) & (1L << to)) != 0;
+        }
+        return Rook.RULE.canMove(board, from, to) || Bishop.RULE.canMove(board, from, to);
+    };
+
     public Queen(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(gameBoard.isOutside(destination)) return false;
-        Vector move = Vector.of(location, destination);
-        if(move.isDiagonal()) return true;
-        return !move.isVertical() || !move.isHorizontal();
-    }
-
     @Override
     public String character() {
         return side == Side.WHITE ? "♕" : "♛";
     }
 
-    // TODO implement this
     @Override
-    protected boolean isBlocked(Vector vector) {
-        return false;
+    public PieceType getType() {
+        return PieceType.QUEEN;
     }
 
     @Override
@@ -1,33 +1,35 @@
 package com.spiritlight.chess.pieces;
 
+import com.spiritlight.chess.game.Attacks;
 import com.spiritlight.chess.utils.Location;
 import com.spiritlight.chess.utils.Side;
-import com.spiritlight.chess.utils.Vector;
 
 import java.util.UUID;
 
 public class Rook extends AbstractPiece {
+    /**
+     * Rooks slide along ranks and files up to the first piece
+     */
+    public static final MoveRule RULE = (board, from, to) -> {
+        if(from == to || !MoveRule.isTarget(board, from, to)) return false;
+        if(board.isPacked()) return (Attacks.rook(from, board.getOccupancy()) & (1L << to)) != 0;
+        int width = board.getX() + 1;
+        if(to % width != from % width && to / width != from / width) return false;
+        return !Rook.RULE.isBlocked(board, from, to);
+    };
+
     public Rook(UUID board, Location location, Side side) {
         super(board, location, side);
     }
 
-    @Override
-    public boolean canMove(Location destination) {
-        if(this.gameBoard.isOutside(destination)) return false;
-        Vector move = Vector.of(location, destination);
-        if(move.isDiagonal()) return false;
-        return move.isHorizontal() || move.isVertical();
-    }
-
     @Override
     public String character() {
         return side == Side.WHITE ? "♖" : "♜";
     }
 
-    // TODO implement this
     @Override
-    protected boolean isBlocked(Vector vector) {
-        return false;
+    public PieceType getType() {
+        return PieceType.ROOK;
     }
 
     @Override
@@ -3,18 +3,14 @@ package com.spiritlight.chess.utils;
 import java.util.Objects;
 
 public abstract class Coordinates {
-    private int x;
-    private int y;
+    private final int x;
+    private final int y;
 
     public Coordinates(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
-    protected Coordinates() {
-
-    }
-
     protected int getX() {
         return this.x;
     }
@@ -23,14 +19,6 @@ public abstract class Coordinates {
         return this.y;
     }
 
-    protected void setX(int x) {
-        this.x = x;
-    }
-
-    protected void setY(int y) {
-        this.y = y;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
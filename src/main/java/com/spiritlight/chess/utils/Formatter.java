@@ -2,26 +2,79 @@ package com.spiritlight.chess.utils;
 
 import com.spiritlight.chess.game.GameBoard;
 
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * A simple formatter that, when supplied a string,
  * outputs a formatted string.
+ * <p>
+ * Formatters may also stream their output into an {@link Appendable}, see
+ * {@link #formatTo(CharSequence, Appendable)}, and be chained with
+ * {@link #andThen(Formatter)}. The formatters provided here are precompiled
+ * lookup tables, built once and shared; streaming through them into a
+ * {@link StringBuilder} allocates nothing.
  */
 @FunctionalInterface
 public interface Formatter {
     String format(String input);
 
+    /**
+     * Formats the input into an output
+     * @param input The text to format
+     * @param out The output to append to
+     * @throws UncheckedIOException if appending fails
+     */
+    default void formatTo(CharSequence input, Appendable out) {
+        try {
+            out.append(format(input.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Chains another formatter after this one
+     * @param next The formatter to apply to the output of this one
+     * @return A formatter applying both in order
+     */
+    default Formatter andThen(Formatter next) {
+        return input -> next.format(format(input));
+    }
+
     /**
      * Default formatting: Does not format at all, as {@link GameBoard#getBoardView()}
      * has already set that part up for us.
      * @return A formatter that returns whatever is supplied to it.
      */
     static Formatter getDefaultFormatting() {
-        return input -> input;
+        return Formatters.IDENTITY;
     }
 
+    /**
+     * Borderless formatting: Removes the frame and coordinates,
+     * leaving the squares only
+     * @return A formatter removing the board frame
+     */
     static Formatter getBorderlessFormatting() {
-        return input -> input.replaceAll("[╔═╗╮╤║│╚╧╝╰┈╯\\w]", "");
+        return Formatters.BORDERLESS;
+    }
+
+    /**
+     * @param chars The characters to remove
+     * @return A precompiled formatter removing each of the given characters
+     */
+    static Formatter removing(CharSequence chars) {
+        return TableFormatter.removing(chars);
+    }
+
+    /**
+     * @param from The characters to replace
+     * @param to The replacement of each character, at the same index
+     * @return A precompiled formatter replacing each of the given characters
+     * @throws IllegalArgumentException if the lengths differ
+     */
+    static Formatter replacing(CharSequence from, CharSequence to) {
+        return TableFormatter.replacing(from, to);
     }
 }
@@ -0,0 +1,41 @@
+package com.spiritlight.chess.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Shared instances of the formatters of {@link Formatter}
+ */
+final class Formatters {
+    static final Formatter IDENTITY = new Formatter() {
+        @Override
+        public String format(String input) {
+            return input;
+        }
+
+        @Override
+        public void formatTo(CharSequence input, Appendable out) {
+            try {
+                out.append(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Formatter andThen(Formatter next) {
+            return next;
+        }
+    };
+
+    /**
+     * The frame characters and coordinates, formerly {@code [╔═╗╮╤║│╚╧╝╰┈╯\w]}
+     */
+    static final Formatter BORDERLESS = TableFormatter.removing("╔═╗╮╤║│╚╧╝╰┈╯_"
+            + "abcdefghijklmnopqrstuvwxyz"
+            + "ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+            + "0123456789");
+
+    private Formatters() {
+    }
+}
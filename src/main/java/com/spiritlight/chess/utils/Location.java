@@ -3,68 +3,80 @@ package com.spiritlight.chess.utils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * A location on a board.
+ * <p>
+ * Locations with both coordinates in {@code [0, 52)}, which covers every
+ * file addressable by a letter, are interned: {@link #of(int, int)} always
+ * returns the same instance for them, so comparing those is an identity check
+ * and no allocation takes place. Any other location, such as one stepping off
+ * the board, is created on demand and compares by its coordinates.
+ */
 public final class Location extends Coordinates {
-
-    public Location(int x, int y) {
-        super(x, y);
-    }
-
-    public Location(char x, int y) {
-        this(fromReflectedAddress(x), y);
-    }
-
     // Minimum lowercase char value 'a'
     private static final char MIN_LOWER = 'a';
     // Minimum uppercase char value 'A'
     private static final char MIN_UPPER = 'A';
     // Length of alphabets existing
     private static final short LENGTH = 26;
-    public Location(char x, char y) {
-        if(Character.isDigit(x)) {
-            try {
-                this.setX(Integer.parseInt(Character.toString(x)));
-                this.setY(y);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid location ID: " + x + "" + y);
+    // Length of each axis of the interned table
+    private static final int SIZE = LENGTH * 2;
+    private static final Location[] INTERNED = new Location[SIZE * SIZE];
+
+    static {
+        for(int y = 0; y < SIZE; y++) {
+            for(int x = 0; x < SIZE; x++) {
+                INTERNED[y * SIZE + x] = new Location(x, y, true);
             }
-            return;
-        }
-        if(!Character.isAlphabetic(x)) throw new IllegalArgumentException("Invalid location ID: " + x + "" + y);
-        if(Character.isLowerCase(x)) {
-            this.setX(x - MIN_LOWER);
-            this.setY(y);
-        } else {
-            this.setX(x - MIN_UPPER + LENGTH);
-            this.setY(y);
         }
     }
 
-    @Contract("_, _ -> new")
+    private final int hash;
+    private final boolean interned;
+
+    private Location(int x, int y, boolean interned) {
+        super(x, y);
+        this.hash = y * SIZE + x;
+        this.interned = interned;
+    }
+
+    @Contract(pure = true)
     public static @NotNull Location of(int x, int y) {
-        return new Location(x, y);
+        if(x >= 0 && x < SIZE && y >= 0 && y < SIZE) {
+            return INTERNED[y * SIZE + x];
+        }
+        return new Location(x, y, false);
     }
 
-    @Contract("_, _ -> new")
+    @Contract(pure = true)
     public static @NotNull Location of(char x, int y) {
-        return new Location(x, y);
+        return of(fromReflectedAddress(x), y);
     }
 
-    @Contract("_, _ -> new")
+    @Contract(pure = true)
     public static @NotNull Location of(char x, char y) {
-        return new Location(x, y);
+        if(Character.isDigit(x)) {
+            try {
+                return of(Integer.parseInt(Character.toString(x)), y);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid location ID: " + x + "" + y);
+            }
+        }
+        if(!Character.isAlphabetic(x)) throw new IllegalArgumentException("Invalid location ID: " + x + "" + y);
+        return of(fromReflectedAddress(x), y);
     }
 
-    @Contract("_, _ -> new")
+    @Contract(pure = true)
     public static @NotNull Location of(@NotNull Location source, @NotNull Vector vector) {
-        return new Location(source.x() + vector.x(), source.y() + vector.y());
+        return of(source.x() + vector.x(), source.y() + vector.y());
     }
 
     /**
      * Applies a given vector to this object
      * @param vector The vector to apply in
-     * @return A new Location object after applying this vector
+     * @return The Location after applying this vector
      */
-    @Contract("_ -> new")
+    @Contract(pure = true)
     public Location apply(Vector vector) {
         if(vector == null) {
             throw new NullPointerException("vector is null");
@@ -112,12 +124,16 @@ public final class Location extends Coordinates {
 
     @Override
     public boolean equals(Object o) {
-        return super.equals(o);
+        if(this == o) return true;
+        if(!(o instanceof Location that)) return false;
+        // Distinct interned instances never share coordinates
+        if(interned && that.interned) return false;
+        return this.x() == that.x() && this.y() == that.y();
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode();
+        return hash;
     }
 
     @Override
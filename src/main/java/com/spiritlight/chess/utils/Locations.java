@@ -14,6 +14,6 @@ public class Locations {
     }
 
     public static Location of(int x, int y) {
-        return new Location(x, y);
+        return Location.of(x, y);
     }
 }
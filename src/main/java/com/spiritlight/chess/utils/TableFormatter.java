@@ -0,0 +1,110 @@
+package com.spiritlight.chess.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A formatter replacing or removing single characters, precompiled into a
+ * lookup table. Characters are looked up in pages of 256, and pages without
+ * any change are left out, so a table costs little beyond the pages it touches.
+ * <p>
+ * Chaining two table formatters folds them into one table.
+ */
+final class TableFormatter implements Formatter {
+    /**
+     * Marks a character to remove, a noncharacter that never appears in text
+     */
+    static final char REMOVE = '\uFFFF';
+
+    private final char[][] pages;
+
+    private TableFormatter(char[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * @param chars The characters to remove
+     * @return A formatter removing the given characters
+     */
+    static TableFormatter removing(CharSequence chars) {
+        char[][] pages = new char[256][];
+        for(int i = 0; i < chars.length(); i++) {
+            page(pages, chars.charAt(i))[chars.charAt(i) & 0xFF] = REMOVE;
+        }
+        return new TableFormatter(pages);
+    }
+
+    /**
+     * @param from The characters to replace
+     * @param to The replacement of each character, at the same index
+     * @return A formatter replacing the given characters
+     */
+    static TableFormatter replacing(CharSequence from, CharSequence to) {
+        if(from.length() != to.length()) throw new IllegalArgumentException("Each character needs one replacement");
+        char[][] pages = new char[256][];
+        for(int i = 0; i < from.length(); i++) {
+            page(pages, from.charAt(i))[from.charAt(i) & 0xFF] = to.charAt(i);
+        }
+        return new TableFormatter(pages);
+    }
+
+    private static char[] page(char[][] pages, char c) {
+        char[] page = pages[c >>> 8];
+        if(page == null) {
+            page = pages[c >>> 8] = new char[256];
+            for(int i = 0; i < page.length; i++) {
+                page[i] = (char) ((c & 0xFF00) | i);
+            }
+        }
+        return page;
+    }
+
+    private char map(char c) {
+        char[] page = pages[c >>> 8];
+        return page == null ? c : page[c & 0xFF];
+    }
+
+    @Override
+    public String format(String input) {
+        StringBuilder sb = new StringBuilder(input.length());
+        formatTo(input, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Unchanged runs of the input are appended at once
+     */
+    @Override
+    public void formatTo(CharSequence input, Appendable out) {
+        try {
+            int start = 0;
+            for(int i = 0; i < input.length(); i++) {
+                char c = input.charAt(i);
+                char mapped = map(c);
+                if(mapped == c) continue;
+                if(start < i) out.append(input, start, i);
+                if(mapped != REMOVE) out.append(mapped);
+                start = i + 1;
+            }
+            if(start < input.length()) out.append(input, start, input.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Formatter andThen(Formatter next) {
+        if(!(next instanceof TableFormatter table)) return Formatter.super.andThen(next);
+        char[][] pages = new char[256][];
+        for(int p = 0; p < 256; p++) {
+            if(this.pages[p] == null && table.pages[p] == null) continue;
+            for(int i = 0; i < 256; i++) {
+                char c = (char) (p << 8 | i);
+                char mapped = map(c);
+                char result = mapped == REMOVE ? REMOVE : table.map(mapped);
+                if(result != c) page(pages, c)[i] = result;
+            }
+        }
+        return new TableFormatter(pages);
+    }
+}
@@ -1,16 +1,11 @@
 package com.spiritlight.chess.utils;
 
-import java.util.Objects;
-
 import static java.lang.Math.abs;
 
 public final class Vector extends Coordinates {
-    private final int x;
-    private final int y;
 
     public Vector(int x, int y) {
-        this.x = x;
-        this.y = y;
+        super(x, y);
     }
 
     public static Vector of(int x, int y) {
@@ -22,23 +17,15 @@ public final class Vector extends Coordinates {
     }
 
     public boolean isDiagonal() {
-        return x == y;
+        return getX() == getY();
     }
 
     public boolean isVertical() {
-        return x == 0 && y != 0;
+        return getX() == 0 && getY() != 0;
     }
 
     public boolean isHorizontal() {
-        return x != 0 && y == 0;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Vector vector = (Vector) o;
-        return x == vector.x && y == vector.y;
+        return getX() != 0 && getY() == 0;
     }
 
     /**
@@ -49,27 +36,22 @@ public final class Vector extends Coordinates {
      * @return true if and only if the absolute value of x and y is equal
      */
     public boolean absoluteEquals(Vector that) {
-        return abs(this.x) == abs(that.x) && abs(this.y) == abs(that.y);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(x, y);
+        return abs(this.getX()) == abs(that.getX()) && abs(this.getY()) == abs(that.getY());
     }
 
     public int x() {
-        return x;
+        return this.getX();
     }
 
     public int y() {
-        return y;
+        return this.getY();
     }
 
     @Override
     public String toString() {
         return "Vector[" +
-                "x=" + x + ", " +
-                "y=" + y + ']';
+                "x=" + getX() + ", " +
+                "y=" + getY() + ']';
     }
 
 }
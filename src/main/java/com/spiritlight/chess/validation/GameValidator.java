@@ -0,0 +1,303 @@
+package com.spiritlight.chess.validation;
+
+import com.spiritlight.chess.game.GameBoard;
+import com.spiritlight.chess.game.GameBoardPool;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.MoveGenerator;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates files of recorded games on all cores, one game per line given as
+ * moves in coordinate notation, {@code from,to} as accepted by
+ * {@link com.spiritlight.chess.Main}, separated by spaces. A promotion may
+ * name its piece, as in {@code e7,e8n}, and promotes to a queen otherwise.
+ * <br /> <br />
+ * A file is split into parts at line boundaries, and each part is memory-mapped
+ * and replayed by a fork-join task on a board borrowed from a pool of this
+ * validator. Tasks share nothing but the pool, and their reports are merged
+ * in file order once done.
+ * <p>
+ * Moves are checked against the rules of {@link MoveGenerator}.
+ */
+public final class GameValidator implements Closeable {
+    /**
+     * Size below which a part of a file is validated by a single task
+     */
+    private static final long PART_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private final GameBoardPool boards;
+
+    /**
+     * Creates a validator running on the common pool
+     */
+    public GameValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a validator
+     * @param pool The pool to validate on
+     */
+    public GameValidator(ForkJoinPool pool) {
+        this.pool = pool;
+        this.boards = new GameBoardPool(pool.getParallelism() + 1);
+    }
+
+    /**
+     * Validates a file
+     * @param file The file
+     * @return The report of the file
+     * @throws IOException if reading the file fails
+     */
+    public ValidationReport validate(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return pool.invoke(new Part(channel, 0, channel.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Validates a single game
+     * @param game The moves of the game
+     * @return The report of the game
+     */
+    public ValidationReport validate(CharSequence game) {
+        GameBoard board = boards.acquire();
+        try {
+            Replay replay = new Replay(board);
+            for(int i = 0; i < game.length(); i++) {
+                replay.accept(game.charAt(i));
+            }
+            return replay.report();
+        } finally {
+            board.release();
+        }
+    }
+
+    /**
+     * Releases the pooled boards, the validator may still be used afterwards
+     */
+    @Override
+    public void close() {
+        boards.clear();
+    }
+
+    /**
+     * Validates the lines of the byte range {@code [start, end)}, which starts
+     * at the beginning of a line
+     */
+    private final class Part extends RecursiveTask<ValidationReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        Part(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ValidationReport compute() {
+            try {
+                if(end - start > PART_SIZE) {
+                    long split = lineStartAfter(start + (end - start) / 2);
+                    if(split < end) {
+                        Part first = new Part(channel, start, split);
+                        Part second = new Part(channel, split, end);
+                        first.fork();
+                        ValidationReport last = second.compute();
+                        return first.join().merge(last);
+                    }
+                }
+                return replay();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private ValidationReport replay() throws IOException {
+            GameBoard board = boards.acquire();
+            try {
+                Replay replay = new Replay(board);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                while(buffer.hasRemaining()) {
+                    replay.accept((char) (buffer.get() & 0xFF));
+                }
+                return replay.report();
+            } finally {
+                board.release();
+            }
+        }
+
+        /**
+         * @return The position right after the first line break at or after the given one
+         */
+        private long lineStartAfter(long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while(position < end) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if(read < 0) break;
+                for(int i = 0; i < read; i++) {
+                    if(buffer.get(i) == '\n') return position + i + 1;
+                }
+                position += read;
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Replays games fed one character at a time
+     */
+    private static final class Replay {
+        private final GameBoard board;
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        private final char[] token = new char[16];
+        private int tokenLength;
+        private boolean inGame;
+        private boolean failed;
+        private int ply;
+
+        private long lines;
+        private long games;
+        private long whiteWins;
+        private long blackWins;
+        private long stalemates;
+        private final List<Violation> violations = new ArrayList<>();
+
+        Replay(GameBoard board) {
+            this.board = board;
+        }
+
+        void accept(char c) {
+            switch(c) {
+                case '\n' -> {
+                    endToken();
+                    endGame();
+                    lines++;
+                }
+                case ' ', '\t', '\r' -> endToken();
+                default -> {
+                    if(!inGame) {
+                        board.reset();
+                        inGame = true;
+                        failed = false;
+                        ply = 0;
+                    }
+                    if(tokenLength < token.length) token[tokenLength] = c;
+                    tokenLength++;
+                }
+            }
+        }
+
+        /**
+         * Ends the last line if it has no line break, then reports
+         */
+        ValidationReport report() {
+            if(inGame || tokenLength > 0) accept('\n');
+            return new ValidationReport(lines, games, whiteWins, blackWins, stalemates, violations);
+        }
+
+        private void endToken() {
+            if(tokenLength == 0) return;
+            int length = tokenLength;
+            tokenLength = 0;
+            if(failed) return;
+            ply++;
+            if(length > token.length) {
+                fail(new String(token) + "...", "Malformed move");
+                return;
+            }
+            Side side = board.getSideToMove();
+            int from = square(0, length);
+            int next = length > 2 && token[2] == ',' ? 3 : 2;
+            int to = square(next, length);
+            int promotion = -1;
+            if(length == next + 3) {
+                promotion = "nbrq".indexOf(Character.toLowerCase(token[next + 2]));
+                if(promotion < 0) to = -1;
+            } else if(length != next + 2) {
+                to = -1;
+            }
+            if(from < 0 || to < 0) {
+                fail(new String(token, 0, length), "Malformed move");
+                return;
+            }
+            int count = MoveGenerator.generate(board, side, moves, 0);
+            for(int i = 0; i < count; i++) {
+                int move = moves[i];
+                if(Move.from(move) != from || Move.to(move) != to) continue;
+                if(Move.isPromotion(move)) {
+                    PieceType type = promotion < 0 ? PieceType.QUEEN : PieceType.of(PieceType.KNIGHT.ordinal() + promotion);
+                    if(Move.promotion(move) != type) continue;
+                } else if(promotion >= 0) {
+                    continue;
+                }
+                if(!MoveGenerator.isLegal(board, side, move)) break;
+                board.playMove(move);
+                return;
+            }
+            String reason;
+            if(MoveGenerator.generateLegal(board, side, moves, 0) == 0) {
+                reason = "The game has already ended";
+            } else if(board.getPieceCode(from) == PieceType.EMPTY) {
+                reason = "No piece";
+            } else {
+                reason = "Move illegal or wrong side";
+            }
+            fail(new String(token, 0, length), reason);
+        }
+
+        private void endGame() {
+            if(!inGame) return;
+            inGame = false;
+            games++;
+            if(failed) return;
+            Side side = board.getSideToMove();
+            if(MoveGenerator.generateLegal(board, side, moves, 0) != 0) return;
+            long king = board.getPieces(side, PieceType.KING);
+            if(king != 0 && MoveGenerator.isAttacked(board, Long.numberOfTrailingZeros(king), side.other())) {
+                if(side == Side.WHITE) blackWins++;
+                else whiteWins++;
+            } else {
+                stalemates++;
+            }
+        }
+
+        private void fail(String move, String reason) {
+            failed = true;
+            violations.add(new Violation(lines + 1, ply, move, reason));
+        }
+
+        /**
+         * @return The square written at the given index of the token, or {@code -1}
+         */
+        private int square(int index, int length) {
+            if(index + 2 > length) return -1;
+            int file = token[index] - 'a';
+            int rank = token[index + 1] - '1';
+            if(file < 0 || file > 7 || rank < 0 || rank > 7) return -1;
+            return rank * 8 + file;
+        }
+    }
+}
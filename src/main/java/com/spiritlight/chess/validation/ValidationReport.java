@@ -0,0 +1,106 @@
+package com.spiritlight.chess.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of validating a file of recorded games.
+ * <br /> <br />
+ * Reports of adjacent parts of a file are combined by {@link #merge(ValidationReport)},
+ * which is how the parts validated by different workers are put together.
+ */
+public final class ValidationReport {
+    private final long lines;
+    private final long games;
+    private final long whiteWins;
+    private final long blackWins;
+    private final long stalemates;
+    private final List<Violation> violations;
+
+    ValidationReport(long lines, long games, long whiteWins, long blackWins, long stalemates, List<Violation> violations) {
+        this.lines = lines;
+        this.games = games;
+        this.whiteWins = whiteWins;
+        this.blackWins = blackWins;
+        this.stalemates = stalemates;
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    /**
+     * Combines this report with the one of the part of the file right after it
+     * @param next The report of the next part
+     * @return The report of both parts
+     */
+    public ValidationReport merge(ValidationReport next) {
+        List<Violation> merged = new ArrayList<>(violations.size() + next.violations.size());
+        merged.addAll(violations);
+        for(Violation violation : next.violations) {
+            merged.add(new Violation(violation.line() + lines, violation.ply(), violation.move(), violation.reason()));
+        }
+        return new ValidationReport(lines + next.lines, games + next.games, whiteWins + next.whiteWins,
+                blackWins + next.blackWins, stalemates + next.stalemates, merged);
+    }
+
+    /**
+     * @return The number of lines read, including blank ones
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @return The number of games read, valid or not
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return The number of games whose every move is legal
+     */
+    public long getValidGames() {
+        return games - violations.size();
+    }
+
+    /**
+     * @return The number of valid games ending with black checkmated
+     */
+    public long getWhiteWins() {
+        return whiteWins;
+    }
+
+    /**
+     * @return The number of valid games ending with white checkmated
+     */
+    public long getBlackWins() {
+        return blackWins;
+    }
+
+    /**
+     * @return The number of valid games ending in stalemate
+     */
+    public long getStalemates() {
+        return stalemates;
+    }
+
+    /**
+     * @return The number of valid games that did not end in checkmate or stalemate
+     */
+    public long getUnfinishedGames() {
+        return getValidGames() - whiteWins - blackWins - stalemates;
+    }
+
+    /**
+     * @return The first violation of each invalid game, in file order
+     */
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationReport[games=" + games + ", valid=" + getValidGames() + ", whiteWins=" + whiteWins
+                + ", blackWins=" + blackWins + ", stalemates=" + stalemates + ", unfinished=" + getUnfinishedGames() + "]";
+    }
+}
@@ -0,0 +1,12 @@
+package com.spiritlight.chess.validation;
+
+/**
+ * An illegal or malformed move of a recorded game
+ *
+ * @param line The line of the game in its file, starting at 1
+ * @param ply The index of the move in the game, starting at 1
+ * @param move The move as written
+ * @param reason Why the move was rejected
+ */
+public record Violation(long line, int ply, String move, String reason) {
+}
@@ -0,0 +1,144 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.TestGames;
+import com.spiritlight.chess.pgn.PgnGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    private static final int E4 = Move.of(12, 28, Move.DOUBLE_PUSH);
+    private static final int D4 = Move.of(11, 27, Move.DOUBLE_PUSH);
+    private static final int E5 = Move.of(52, 36, Move.DOUBLE_PUSH);
+    private static final int C5 = Move.of(50, 34, Move.DOUBLE_PUSH);
+    private static final int D5 = Move.of(51, 35, Move.DOUBLE_PUSH);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void weightsMovesByResult() throws IOException {
+        Path path = dir.resolve("book.bin");
+        OpeningBookBuilder builder = new OpeningBookBuilder(2);
+        builder.addAll(List.of(
+                game(PgnGame.WHITE_WINS, E4, E5),
+                game(PgnGame.BLACK_WINS, E4, C5),
+                game(PgnGame.DRAW, D4, D5),
+                game(PgnGame.WHITE_WINS, E4, E5)).iterator());
+        // e5 only ever lost, so the book holds e4, d4, c5 and d5
+        assertEquals(4, builder.write(path));
+
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(4, book.size());
+        long start = key();
+        int[] moves = new int[4];
+        int[] weights = new int[4];
+        assertEquals(2, book.getMoves(start, moves, weights));
+        assertArrayEquals(new int[] {D4, E4}, Arrays.copyOf(moves, 2));
+        assertArrayEquals(new int[] {1, 4}, Arrays.copyOf(weights, 2));
+        assertEquals(1, book.getMoves(key(E4), moves, weights));
+        assertEquals(C5, moves[0]);
+        assertEquals(2, weights[0]);
+        assertEquals(-1, book.find(key(E4, E5)));
+        assertEquals(0, book.getMoves(key(E4, E5), moves, weights));
+    }
+
+    @Test
+    void picksInProportionToWeight() throws IOException {
+        Path path = dir.resolve("book.bin");
+        new OpeningBookBuilder(1)
+                .add(game(PgnGame.WHITE_WINS, E4))
+                .add(game(PgnGame.WHITE_WINS, E4))
+                .add(game(PgnGame.DRAW, D4))
+                .write(path);
+        OpeningBook book = OpeningBook.open(path);
+        BitBoard board = TestGames.board(Board.STARTING_FEN);
+
+        Map<Integer, Integer> picks = new HashMap<>();
+        for(long random = -2500; random < 2500; random++) {
+            picks.merge(book.pick(board, random), 1, Integer::sum);
+        }
+        assertEquals(Map.of(E4, 4000, D4, 1000), picks);
+        board.playMove(E4);
+        assertEquals(Move.NONE, book.pick(board, 0));
+    }
+
+    @Test
+    void lookupsMatchTheGames() throws IOException {
+        Random random = new Random(25);
+        String[] results = {PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW, PgnGame.UNKNOWN};
+        OpeningBookBuilder builder = new OpeningBookBuilder(6);
+        // Weight of each move by position, as the builder should count them
+        Map<Long, Map<Integer, Integer>> expected = new HashMap<>();
+        for(int i = 0; i < 500; i++) {
+            // Few plies, so that positions repeat across games
+            int[] moves = TestGames.randomGame(Board.STARTING_FEN, random, 4 + random.nextInt(6));
+            String result = results[random.nextInt(results.length)];
+            builder.add(new PgnGame(Map.of(), moves, result));
+            BitBoard board = TestGames.board(Board.STARTING_FEN);
+            for(int ply = 0; ply < Math.min(6, moves.length); ply++) {
+                boolean white = ply % 2 == 0;
+                int weight = switch(result) {
+                    case PgnGame.WHITE_WINS -> white ? 2 : 0;
+                    case PgnGame.BLACK_WINS -> white ? 0 : 2;
+                    default -> 1;
+                };
+                expected.computeIfAbsent(board.positionKey(), k -> new HashMap<>()).merge(moves[ply], weight, Integer::sum);
+                board.playMove(moves[ply]);
+            }
+        }
+        expected.values().forEach(moves -> moves.values().removeIf(weight -> weight == 0));
+        expected.values().removeIf(Map::isEmpty);
+
+        Path path = dir.resolve("book.bin");
+        long entries = builder.write(path);
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(expected.values().stream().mapToInt(Map::size).sum(), entries);
+        assertEquals(entries, book.size());
+        for(long index = 1; index < book.size(); index++) {
+            assertTrue(book.getKey(index - 1) < book.getKey(index)
+                    || book.getKey(index - 1) == book.getKey(index) && book.getMove(index - 1) < book.getMove(index));
+        }
+        int[] moves = new int[64];
+        int[] weights = new int[64];
+        for(Map.Entry<Long, Map<Integer, Integer>> position : expected.entrySet()) {
+            int count = book.getMoves(position.getKey(), moves, weights);
+            Map<Integer, Integer> actual = new HashMap<>();
+            for(int i = 0; i < count; i++) {
+                actual.put(moves[i], weights[i]);
+            }
+            assertEquals(position.getValue(), actual);
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path path = dir.resolve("other.bin");
+        Files.write(path, new byte[OpeningBook.HEADER_BYTES + OpeningBook.ENTRY_BYTES]);
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    private static PgnGame game(String result, int... moves) {
+        return new PgnGame(Map.of(), moves, result);
+    }
+
+    /**
+     * @return The key of the position reached by playing moves from the start
+     */
+    private static long key(int... moves) {
+        BitBoard board = TestGames.board(Board.STARTING_FEN);
+        for(int move : moves) {
+            board.playMove(move);
+        }
+        return board.positionKey();
+    }
+}
@@ -0,0 +1,44 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.TestGames;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTest {
+    @Test
+    void singleThreadMatchesSearch() {
+        BitBoard board = TestGames.board(TestGames.KIWIPETE);
+        SearchResult expected = new Search(board, new TranspositionTable(16)).run(SearchLimits.ofDepth(4));
+        SearchResult actual = new ParallelSearch(board, 1, new TranspositionTable(16)).run(SearchLimits.ofDepth(4));
+        assertEquals(expected.bestMove(), actual.bestMove());
+        assertEquals(expected.score(), actual.score());
+        assertEquals(expected.depth(), actual.depth());
+    }
+
+    @Test
+    void helpersAgreeOnMates() {
+        ParallelSearch search = new ParallelSearch(TestGames.board("6k1/8/8/8/8/8/R7/1R4K1 w - - 0 1"), 4);
+        assertEquals(4, search.getThreadCount());
+        for(int run = 0; run < 5; run++) {
+            SearchResult result = search.run(SearchLimits.ofDepth(5));
+            assertEquals(Search.MATE - 3, result.score());
+        }
+
+        search.setPosition(TestGames.board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"));
+        SearchResult result = search.run(SearchLimits.ofDepth(4));
+        assertEquals(Search.MATE - 1, result.score());
+        assertEquals(56, Move.to(result.bestMove()));
+    }
+
+    @Test
+    void helpersAgreeOnMaterial() {
+        BitBoard board = TestGames.board("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult expected = new Search(board).run(SearchLimits.ofDepth(3));
+        SearchResult actual = new ParallelSearch(board, 4).run(SearchLimits.ofDepth(3));
+        assertEquals(expected.bestMove(), actual.bestMove());
+        assertEquals(expected.score(), actual.score());
+    }
+}
@@ -0,0 +1,72 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+    @Test
+    void findsMateInOne() {
+        SearchResult result = new Search(TestGames.board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1")).run(SearchLimits.ofDepth(4));
+        assertEquals("a1a8", squares(result.bestMove()));
+        assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    void findsMateAtTheHorizon() {
+        // The reply is searched by quiescence only, which must not stand pat in check
+        SearchResult result = new Search(TestGames.board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1")).run(SearchLimits.ofDepth(1));
+        assertEquals("a1a8", squares(result.bestMove()));
+        assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    void findsMateInTwo() {
+        SearchResult result = new Search(TestGames.board("6k1/8/8/8/8/8/R7/1R4K1 w - - 0 1")).run(SearchLimits.ofDepth(5));
+        assertEquals(Search.MATE - 3, result.score());
+        assertTrue(Search.isMateScore(result.score()));
+    }
+
+    @Test
+    void winsHangingMaterial() {
+        SearchResult result = new Search(TestGames.board("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1")).run(SearchLimits.ofDepth(3));
+        assertEquals("d2d5", squares(result.bestMove()));
+        assertTrue(result.score() >= 400, result.toString());
+    }
+
+    @Test
+    void nodeLimitStillGivesAMove() {
+        BitBoard board = TestGames.board(TestGames.KIWIPETE);
+        SearchResult result = new Search(board).run(SearchLimits.ofNodes(2000));
+        assertNotEquals(Move.NONE, result.bestMove());
+        assertTrue(result.depth() >= 1);
+    }
+
+    @Test
+    void cancelledSearchesReturn() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            SearchHandle handle = Search.start(TestGames.board(TestGames.KIWIPETE), SearchLimits.INFINITE, executor);
+            while(handle.getCurrentResult() == null) Thread.onSpinWait();
+            handle.cancel();
+            SearchResult result = handle.join();
+            assertNotEquals(Move.NONE, result.bestMove());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String squares(int move) {
+        return square(Move.from(move)) + square(Move.to(move));
+    }
+
+    private static String square(int square) {
+        return "" + (char) ('a' + square % 8) + (char) ('1' + square / 8);
+    }
+}
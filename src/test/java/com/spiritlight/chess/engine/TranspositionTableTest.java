@@ -0,0 +1,114 @@
+package com.spiritlight.chess.engine;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    @Test
+    void storesAndProbes() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        table.store(key, 0x0ABC, -1234, 7, TranspositionTable.LOWER);
+        long entry = table.probe(key);
+        assertEquals(0x0ABC, TranspositionTable.move(entry));
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(0, table.probe(key + 1));
+        table.clear();
+        assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    void deepEntriesSurviveNewerOnes() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Keys of the same bucket, differing in the upper bits only
+        long deep = 42;
+        long newer = 42 | 1L << 40;
+        long newest = 42 | 2L << 40;
+        table.store(deep, 1, 10, 12, TranspositionTable.EXACT);
+        table.store(newer, 2, 20, 3, TranspositionTable.EXACT);
+        table.store(newest, 3, 30, 2, TranspositionTable.EXACT);
+        assertEquals(12, TranspositionTable.depth(table.probe(deep)));
+        assertEquals(0, table.probe(newer));
+        assertEquals(3, TranspositionTable.move(table.probe(newest)));
+
+        // A new search may replace the deep entry
+        table.newSearch();
+        table.store(newer, 2, 20, 3, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(deep));
+        assertEquals(2, TranspositionTable.move(table.probe(newer)));
+    }
+
+    @Test
+    void concurrentWritersNeverYieldForeignEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        long[] keys = new long[1 << 16];
+        Random random = new Random(8);
+        for(int i = 0; i < keys.length; i++) keys[i] = random.nextLong() | 1;
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong hits = new AtomicLong();
+        AtomicLong mismatches = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random r = new Random(seed);
+                while(running.get()) {
+                    long key = keys[r.nextInt(keys.length)];
+                    table.store(key, move(key), score(key), depth(key), TranspositionTable.EXACT);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                Random r = new Random(seed + 100);
+                while(running.get()) {
+                    long key = keys[r.nextInt(keys.length)];
+                    long entry = table.probe(key);
+                    if(entry == 0) continue;
+                    hits.incrementAndGet();
+                    if(TranspositionTable.move(entry) != move(key) || TranspositionTable.score(entry) != score(key)
+                            || TranspositionTable.depth(entry) != depth(key)) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(500);
+        running.set(false);
+        for(Thread thread : threads) thread.join();
+        assertTrue(hits.get() > 0);
+        assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    void searchWithTableAgrees() {
+        BitBoard board = TestGames.board("6k1/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+        TranspositionTable table = new TranspositionTable(4);
+        SearchResult without = new Search(board).run(SearchLimits.ofDepth(5));
+        SearchResult with = new Search(board, table).run(SearchLimits.ofDepth(5));
+        assertEquals(without.score(), with.score());
+        assertEquals(with.score(), new Search(board, table).run(SearchLimits.ofDepth(5)).score());
+    }
+
+    private static int move(long key) {
+        return (int) (key >>> 48);
+    }
+
+    private static int score(long key) {
+        return (short) (key >>> 20);
+    }
+
+    private static int depth(long key) {
+        return (int) (key >>> 8) & 0xFF;
+    }
+}
@@ -0,0 +1,70 @@
+package com.spiritlight.chess.events;
+
+import com.spiritlight.chess.game.GameBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    @Test
+    void switchingDeliveryKeepsOrder() throws InterruptedException {
+        GameBoard board = new GameBoard(7, 7);
+        EventBus bus = new EventBus();
+        List<Event> delivered = Collections.synchronizedList(new ArrayList<>());
+        bus.addListener((GameEvent.Listener) event -> {
+            delivered.add(event);
+            // Slow listener, so that events are still buffered when switching
+            Thread.onSpinWait();
+        });
+        List<Event> fired = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for(int round = 0; round < 50; round++) {
+                for(int i = 0; i < 20; i++) {
+                    GameEvent event = new GameEvent(board, board.snapshot());
+                    fired.add(event);
+                    bus.fire(event);
+                }
+                if(round % 3 == 0) {
+                    bus.disableAsync();
+                } else {
+                    bus.enableAsync(8, BackpressurePolicy.BLOCK, 3, executor);
+                }
+            }
+            bus.disableAsync();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(fired, delivered);
+    }
+
+    @Test
+    void switchingFromOwnListenerIsRejected() throws InterruptedException {
+        GameBoard board = new GameBoard(7, 7);
+        EventBus bus = new EventBus();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        bus.addListener((GameEvent.Listener) event -> {
+            try {
+                bus.disableAsync();
+            } catch (IllegalStateException e) {
+                errors.add(e);
+            }
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            bus.enableAsync(8, BackpressurePolicy.BLOCK, 8, executor);
+            bus.fire(new GameEvent(board, board.snapshot()));
+            bus.disableAsync();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, errors.size());
+        assertFalse(bus.isAsync());
+    }
+}
@@ -0,0 +1,72 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttacksTest {
+    private static final int[][] BISHOP = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] ROOK = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    @Test
+    void slidersMatchRayScan() {
+        Random random = new Random(19);
+        for(int square = 0; square < 64; square++) {
+            for(int i = 0; i < 2000; i++) {
+                // Sparse and dense occupancies alike
+                long occupied = random.nextLong() & random.nextLong() & (i % 2 == 0 ? random.nextLong() : -1L);
+                assertEquals(scan(square, occupied, BISHOP), Attacks.bishop(square, occupied), "bishop on " + square);
+                assertEquals(scan(square, occupied, ROOK), Attacks.rook(square, occupied), "rook on " + square);
+                assertEquals(scan(square, occupied, BISHOP) | scan(square, occupied, ROOK), Attacks.queen(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    void betweenAndLine() {
+        for(int from = 0; from < 64; from++) {
+            for(int to = 0; to < 64; to++) {
+                long between = 0;
+                long line = 0;
+                for(int[][] directions : new int[][][] {BISHOP, ROOK}) {
+                    for(int[] direction : directions) {
+                        long ray = ray(from, 0, direction);
+                        if((ray & (1L << to)) == 0) continue;
+                        between = ray(from, 1L << to, direction) & ~(1L << to);
+                        int[] back = {-direction[0], -direction[1]};
+                        line = ray | ray(from, 0, back) | 1L << from;
+                    }
+                }
+                assertEquals(between, Attacks.between(from, to), from + " to " + to);
+                assertEquals(line, Attacks.line(from, to), from + " to " + to);
+            }
+        }
+    }
+
+    private static long scan(int square, long occupied, int[][] directions) {
+        long ret = 0;
+        for(int[] direction : directions) {
+            ret |= ray(square, occupied, direction);
+        }
+        return ret;
+    }
+
+    /**
+     * Squares reached from a square in one direction, up to and including the first blocker
+     */
+    private static long ray(int square, long occupied, int[] direction) {
+        long ret = 0;
+        int x = square % 8 + direction[0];
+        int y = square / 8 + direction[1];
+        while(x >= 0 && x < 8 && y >= 0 && y < 8) {
+            long bit = 1L << (y * 8 + x);
+            ret |= bit;
+            if((occupied & bit) != 0) break;
+            x += direction[0];
+            y += direction[1];
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,95 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+    @Test
+    void positionsRoundTrip() {
+        Random random = new Random(24);
+        BitBoard read = new BitBoard(7, 7);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.positionSize(7, 7));
+        ByteBuffer fromSnapshot = ByteBuffer.allocate(BinaryCodec.positionSize(7, 7));
+        for(int game = 0; game < 100; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            BitBoard board = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 150)) {
+                board.playMove(move);
+
+                buffer.clear();
+                BinaryCodec.writePosition(board, buffer);
+                assertFalse(buffer.hasRemaining());
+                fromSnapshot.clear();
+                BinaryCodec.writePosition(board.snapshot(), fromSnapshot);
+                assertEquals(buffer.flip(), fromSnapshot.flip());
+
+                BinaryCodec.readPosition(buffer, read);
+                assertEquals(board.toFen(), read.toFen());
+                assertEquals(board.positionKey(), read.positionKey());
+            }
+        }
+    }
+
+    @Test
+    void gamesRoundTrip() {
+        Random random = new Random(24);
+        int[] game = TestGames.randomGame(TestGames.KIWIPETE, random, 200);
+        int plies = game.length;
+        BitBoard board = TestGames.board(TestGames.KIWIPETE);
+        for(int move : game) {
+            board.playMove(move);
+        }
+        String end = board.toFen();
+
+        board.setFen(TestGames.KIWIPETE);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.positionSize(7, 7) + BinaryCodec.movesSize(plies));
+        BinaryCodec.writePosition(board, buffer);
+        BinaryCodec.writeMoves(game, 0, plies, buffer);
+        assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+        BitBoard read = new BitBoard(7, 7);
+        BinaryCodec.readPosition(buffer, read);
+        int mark = buffer.position();
+        assertEquals(plies, BinaryCodec.playMoves(buffer, read));
+        assertEquals(end, read.toFen());
+
+        int[] readMoves = new int[plies + 1];
+        assertEquals(plies, BinaryCodec.readMoves(buffer.position(mark), readMoves, 1));
+        for(int i = 0; i < plies; i++) {
+            assertEquals(game[i], readMoves[i + 1]);
+        }
+    }
+
+    @Test
+    void otherBoardSizes() {
+        BitBoard board = new BitBoard(8, 8);
+        board.setFen("rnbqkbnrr/ppppppppp/9/9/9/9/9/PPPPPPPPP/RNBQKBNRR b - - 3 7");
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.positionSize(8, 8));
+        BinaryCodec.writePosition(board, buffer);
+        assertFalse(buffer.hasRemaining());
+
+        BitBoard read = new BitBoard(8, 8);
+        BinaryCodec.readPosition(buffer.flip(), read);
+        assertEquals(board.toFen(), read.toFen());
+
+        BitBoard classic = new BitBoard(7, 7);
+        assertThrows(IllegalArgumentException.class, () -> BinaryCodec.readPosition(buffer.rewind(), classic));
+        assertEquals(0, classic.getOccupancy());
+    }
+
+    @Test
+    void truncatedPositionsLeaveTheBoardEmpty() {
+        BitBoard board = TestGames.board(Board.STARTING_FEN);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.positionSize(7, 7));
+        BinaryCodec.writePosition(board, buffer);
+        buffer.flip().limit(buffer.limit() - 1);
+        assertThrows(BufferUnderflowException.class, () -> BinaryCodec.readPosition(buffer, board));
+        assertEquals(0, board.getOccupancy());
+    }
+}
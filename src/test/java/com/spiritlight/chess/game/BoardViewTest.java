@@ -0,0 +1,95 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.AbstractPiece;
+import com.spiritlight.chess.utils.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardViewTest {
+    @Test
+    void patchedViewsMatchFullRenders() {
+        Random random = new Random(22);
+        for(int game = 0; game < 20; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            GameBoard board = Board.fromFen(fen);
+            assertEquals(draw(board), board.getBoardView());
+            for(int move : TestGames.randomGame(fen, random, 100)) {
+                board.playMove(move);
+                String view = board.getBoardView();
+                assertEquals(new BoardView(board).render(board.snapshot()), view);
+                assertEquals(draw(board), view);
+            }
+            board.reset();
+            assertEquals(draw(board), board.getBoardView());
+            board.finish();
+        }
+    }
+
+    @Test
+    void unchangedBoardsReuseTheView() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        String view = board.getBoardView();
+        assertSame(view, board.getBoardView());
+        board.playMove(Move.of(12, 28, Move.DOUBLE_PUSH));
+        assertNotEquals(view, board.getBoardView());
+        board.finish();
+    }
+
+    @Test
+    void rendersTheGivenSnapshotRatherThanTheBoard() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        PositionSnapshot start = board.snapshot();
+        String view = board.getBoardView();
+        board.playMove(Move.of(12, 28, Move.DOUBLE_PUSH));
+        BoardView other = new BoardView(board);
+        assertEquals(view, other.render(start));
+        assertNotEquals(view, other.render(board.snapshot()));
+        assertEquals(view, other.render(start));
+        board.finish();
+    }
+
+    @Test
+    void otherBoardSizes() {
+        GameBoard board = new GameBoard(9, 5);
+        board.setFen("rnbqkbnrrr/pppppppppp/10/10/PPPPPPPPPP/RNBQKBNRRR w - - 0 1");
+        assertEquals(draw(board), board.getBoardView());
+        board.setFen("rnbqkbnrrr/pppp1ppppp/10/4p5/PPPP1PPPPP/RNBQKBNRRR w - - 0 1");
+        assertEquals(draw(board), board.getBoardView());
+        board.finish();
+    }
+
+    /**
+     * Draws a board piece by piece, as views were drawn before they were cached
+     */
+    private static String draw(GameBoard board) {
+        int x = board.x;
+        int y = board.y;
+        StringBuilder ret = new StringBuilder("╔");
+        for(int i = 0; i <= x; i++) {
+            ret.append(i == x ? "═╗╮" : "═╤");
+        }
+        ret.append("\n");
+        for(int axisY = y; axisY >= 0; axisY--) {
+            ret.append("║");
+            for(int axisX = 0; axisX <= x; axisX++) {
+                AbstractPiece piece = board.getPiece(Location.of(axisX, axisY));
+                ret.append(piece == null ? "░" : piece.character()).append(axisX == x ? "" : "│");
+            }
+            ret.append("║").append(axisY + 1).append("\n");
+        }
+        ret.append("╚");
+        for(int i = 0; i <= x; i++) {
+            ret.append(x == i ? "═╝" : "═╧");
+        }
+        ret.append("\n");
+        ret.append("╰");
+        for(int i = 0; i <= x; i++) {
+            ret.append(Location.toReflectedAddress(i)).append("┈");
+        }
+        ret.append("╯");
+        return ret.toString();
+    }
+}
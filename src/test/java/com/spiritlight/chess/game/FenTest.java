@@ -0,0 +1,93 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenTest {
+    @Test
+    void roundTrips() {
+        BitBoard board = new BitBoard(7, 7);
+        for(String fen : new String[] {
+                Board.STARTING_FEN,
+                TestGames.KIWIPETE,
+                "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 40"
+        }) {
+            board.setFen(fen);
+            assertEquals(fen, board.toFen());
+        }
+    }
+
+    @Test
+    void roundTripsRandomGames() {
+        Random random = new Random(14);
+        BitBoard copy = new BitBoard(7, 7);
+        for(int game = 0; game < 100; game++) {
+            BitBoard board = TestGames.board(Board.STARTING_FEN);
+            for(int move : TestGames.randomGame(Board.STARTING_FEN, random, 150)) {
+                board.playMove(move);
+                String fen = board.toFen();
+                copy.setFen(fen);
+                assertEquals(fen, copy.toFen());
+                assertEquals(board.positionKey(), copy.positionKey(), fen);
+            }
+        }
+    }
+
+    @Test
+    void omittedFieldsTakeDefaults() {
+        BitBoard board = new BitBoard(7, 7);
+        board.setFen("4k3/8/8/8/8/8/8/4K3 b");
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", board.toFen());
+    }
+
+    @Test
+    void castlingRightsNeedKingAndRook() {
+        BitBoard board = new BitBoard(7, 7);
+        board.setFen("4k3/8/8/8/8/8/8/R3K3 w KQkq - 0 1");
+        assertEquals("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1", board.toFen());
+    }
+
+    @Test
+    void otherBoardSizes() {
+        BitBoard board = new BitBoard(9, 9);
+        String fen = "rnbqkbnrrr/pppppppppp/10/10/10/10/10/10/PPPPPPPPPP/RNBQKBNRRR w - - 0 1";
+        board.setFen(fen);
+        assertEquals(fen, board.toFen());
+    }
+
+    @Test
+    void malformedPositionsAreRejected() {
+        BitBoard board = new BitBoard(7, 7);
+        for(String fen : new String[] {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e1 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra"
+        }) {
+            assertThrows(IllegalArgumentException.class, () -> board.setFen(fen), fen);
+            assertEquals(0, board.getOccupancy(Side.WHITE) | board.getOccupancy(Side.BLACK), fen);
+        }
+    }
+
+    @Test
+    void initializedGameBoardsRejectPositions() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        assertThrows(IllegalStateException.class, () -> board.setFen(TestGames.KIWIPETE));
+        assertEquals(Board.STARTING_FEN, board.toFen());
+        board.reset(TestGames.KIWIPETE);
+        assertEquals(TestGames.KIWIPETE, board.toFen());
+        board.release();
+    }
+}
@@ -0,0 +1,42 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameBoardPoolTest {
+    @Test
+    void reusesReleasedBoards() {
+        GameBoardPool pool = new GameBoardPool(2);
+        GameBoard first = pool.acquire();
+        first.release();
+        GameBoard second = pool.acquire();
+        assertSame(first, second);
+        assertEquals(Board.STARTING_FEN, second.toFen());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReusedCount());
+        second.release();
+    }
+
+    @Test
+    void rejectsSecondRelease() {
+        GameBoardPool pool = new GameBoardPool(2);
+        GameBoard board = pool.acquire();
+        board.release();
+        assertThrows(IllegalStateException.class, board::release);
+        assertEquals(1, pool.size());
+        assertNotSame(pool.acquire(), pool.acquire());
+    }
+
+    @Test
+    void countsOneGamePerAcquisition() {
+        GameBoardPool pool = new GameBoardPool(1);
+        long created = GameRegistry.getCreatedGameCount();
+        long finished = GameRegistry.getFinishedGameCount();
+        GameBoard board = pool.acquire();
+        assertSame(board, GameRegistry.get(board.getID()));
+        board.release();
+        assertEquals(created + 1, GameRegistry.getCreatedGameCount());
+        assertEquals(finished + 1, GameRegistry.getFinishedGameCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.events.GameFinishEvent;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.spiritlight.chess.game.TestGames.at;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEndTest {
+    @Test
+    void hasLegalMoveAgreesWithGenerator() {
+        Random random = new Random(20);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for(int game = 0; game < 200; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            BitBoard board = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 200)) {
+                board.playMove(move);
+                Side side = board.getSideToMove();
+                int count = MoveGenerator.generateLegal(board, side, moves);
+                assertEquals(count > 0, MoveGenerator.hasLegalMove(board, side), board.toFen());
+            }
+        }
+    }
+
+    @Test
+    void movePiecePlaysAsEncodedMoves() {
+        Random random = new Random(20);
+        for(int game = 0; game < 100; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            GameBoard board = Board.fromFen(fen);
+            BitBoard expected = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 200)) {
+                // Pawns promote to queens only through movePiece
+                if(Move.isPromotion(move) && Move.promotion(move) != PieceType.QUEEN) break;
+                assertTrue(board.movePiece(board.getSideToMove(), Move.fromLocation(move), Move.toLocation(move)), Move.toString(move));
+                expected.playMove(move);
+                // Finished games are cleared
+                if(board.isCompleted()) {
+                    assertFalse(MoveGenerator.hasLegalMove(expected, expected.getSideToMove()));
+                } else {
+                    assertEquals(expected.toFen(), board.toFen());
+                }
+            }
+            board.finish();
+        }
+    }
+
+    @Test
+    void checkmateFinishesTheGame() {
+        GameBoard board = Board.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        List<GameFinishEvent> finishes = new ArrayList<>();
+        board.addListener((GameFinishEvent.Listener) finishes::add);
+
+        assertTrue(board.movePiece(Side.WHITE, at("a1"), at("a8")));
+        assertEquals(1, finishes.size());
+        assertEquals(GameFinishEvent.Reason.CHECKMATE, finishes.get(0).getReason());
+        assertEquals(Side.WHITE, finishes.get(0).getWinner());
+        assertTrue(board.isCompleted());
+    }
+
+    @Test
+    void stalemateFinishesTheGame() {
+        GameBoard board = Board.fromFen("k7/8/2K5/8/8/8/8/1Q6 w - - 0 1");
+        List<GameFinishEvent> finishes = new ArrayList<>();
+        board.addListener((GameFinishEvent.Listener) finishes::add);
+
+        assertTrue(board.movePiece(Side.WHITE, at("b1"), at("b6")));
+        assertEquals(1, finishes.size());
+        assertEquals(GameFinishEvent.Reason.STALEMATE, finishes.get(0).getReason());
+        assertNull(finishes.get(0).getWinner());
+    }
+
+    @Test
+    void refusesMovesIntoCheck() {
+        GameBoard board = Board.fromFen("1r5k/8/8/8/8/8/8/K7 w - - 0 1");
+        assertFalse(board.movePiece(Side.WHITE, at("a1"), at("b1")));
+        assertTrue(board.movePiece(Side.WHITE, at("a1"), at("a2")));
+    }
+
+    @Test
+    void castlesThroughMovePiece() {
+        GameBoard board = Board.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertTrue(board.movePiece(Side.WHITE, at("e1"), at("g1")));
+        assertTrue(board.movePiece(Side.BLACK, at("e8"), at("c8")));
+        assertEquals("2kr3r/8/8/8/8/8/8/R4RK1 w - - 2 2", board.toFen());
+    }
+
+    @Test
+    void refusesCastlingOutOfOrThroughCheck() {
+        GameBoard board = Board.fromFen("4k3/8/8/8/8/8/5r2/R3K2R w KQ - 0 1");
+        assertFalse(board.movePiece(Side.WHITE, at("e1"), at("g1")));
+        assertTrue(board.movePiece(Side.WHITE, at("e1"), at("c1")));
+        assertTrue(board.toFen().startsWith("4k3/8/8/8/8/8/5r2/2KR3R b - -"), board.toFen());
+
+        board = Board.fromFen("4r1k1/8/8/8/8/8/8/R3K2R w KQ - 0 1");
+        assertFalse(board.movePiece(Side.WHITE, at("e1"), at("g1")));
+        assertFalse(board.movePiece(Side.WHITE, at("e1"), at("c1")));
+
+        board = Board.fromFen("4k3/8/8/8/8/8/8/R3K2R w Q - 0 1");
+        assertFalse(board.movePiece(Side.WHITE, at("e1"), at("g1")));
+        assertFalse(board.movePiece(Side.WHITE, at("e1"), at("e3")));
+    }
+
+    @Test
+    void playsTheOnlyMoveEnPassant() {
+        GameBoard board = Board.fromFen("1r5k/3p4/4p3/4P3/8/2n5/8/K7 b - - 0 1");
+        List<CaptureEvent> captures = new ArrayList<>();
+        board.addListener((CaptureEvent.Listener) captures::add);
+
+        assertTrue(board.movePiece(Side.BLACK, at("d7"), at("d5")));
+        assertFalse(board.isCompleted());
+        assertEquals(1, MoveGenerator.generateLegal(board, Side.WHITE, new int[MoveGenerator.MAX_MOVES]));
+        assertTrue(board.movePiece(Side.WHITE, at("e5"), at("d6")));
+        assertEquals(1, captures.size());
+        assertEquals(at("d5"), captures.get(0).getLocation());
+        assertTrue(board.toFen().startsWith("1r5k/8/3Pp3/8/8/2n5/8/K7 b"), board.toFen());
+    }
+}
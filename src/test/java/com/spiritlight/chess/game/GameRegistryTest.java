@@ -0,0 +1,58 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRegistryTest {
+    @Test
+    void countsCreatedAndFinishedGames() {
+        long created = GameRegistry.getCreatedGameCount();
+        long finished = GameRegistry.getFinishedGameCount();
+        int live = GameRegistry.getLiveGameCount();
+
+        GameBoard board = new GameBoard(7, 7);
+        assertSame(board, GameRegistry.get(board.getID()));
+        assertEquals(created + 1, GameRegistry.getCreatedGameCount());
+        assertEquals(live + 1, GameRegistry.getLiveGameCount());
+
+        board.finish();
+        board.finish();
+        assertNull(GameRegistry.get(board.getID()));
+        assertEquals(finished + 1, GameRegistry.getFinishedGameCount());
+        assertEquals(live, GameRegistry.getLiveGameCount());
+    }
+
+    @Test
+    void rejectsDuplicateIds() {
+        GameBoard board = new GameBoard(7, 7);
+        assertThrows(IllegalStateException.class, () -> GameRegistry.register(board));
+        board.finish();
+    }
+
+    @Test
+    void countsGamesOfManyThreads() throws InterruptedException {
+        long created = GameRegistry.getCreatedGameCount();
+        long finished = GameRegistry.getFinishedGameCount();
+        AtomicInteger missing = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for(int i = 0; i < 1000; i++) {
+                    GameBoard board = new GameBoard(7, 7);
+                    if(GameRegistry.get(board.getID()) != board) missing.incrementAndGet();
+                    board.finish();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for(Thread thread : threads) thread.join();
+        assertEquals(0, missing.get());
+        assertEquals(created + 8000, GameRegistry.getCreatedGameCount());
+        assertEquals(finished + 8000, GameRegistry.getFinishedGameCount());
+    }
+}
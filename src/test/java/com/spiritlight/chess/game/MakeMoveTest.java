@@ -0,0 +1,44 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MakeMoveTest {
+    private static final String[] POSITIONS = {
+            Board.STARTING_FEN,
+            TestGames.KIWIPETE,
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"
+    };
+
+    @Test
+    void unmakeRestoresEveryPosition() {
+        Random random = new Random(5);
+        for(int game = 0; game < 100; game++) {
+            String fen = POSITIONS[game % POSITIONS.length];
+            int[] moves = TestGames.randomGame(fen, random, 100);
+            BitBoard board = TestGames.board(fen);
+            String[] states = new String[moves.length];
+            for(int ply = 0; ply < moves.length; ply++) {
+                states[ply] = state(board);
+                board.makeMove(moves[ply]);
+            }
+            for(int ply = moves.length - 1; ply >= 0; ply--) {
+                board.unmakeMove();
+                assertEquals(states[ply], state(board));
+            }
+        }
+    }
+
+    @Test
+    void unmakeWithoutMoveFails() {
+        BitBoard board = TestGames.board(Board.STARTING_FEN);
+        assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    private static String state(BitBoard board) {
+        return board.toFen() + " " + board.positionKey() + " " + board.getPieceSquareScore();
+    }
+}
@@ -0,0 +1,45 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+    @Test
+    void startingPosition() {
+        assertCounts(Board.STARTING_FEN, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    void kiwipete() {
+        assertCounts(TestGames.KIWIPETE, 48, 2039, 97862, 4085603);
+    }
+
+    @Test
+    void enPassantAndDiscoveredChecks() {
+        assertCounts("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624);
+    }
+
+    @Test
+    void promotionsAndCastling() {
+        assertCounts("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333);
+    }
+
+    @Test
+    void countingLeavesTheBoardUntouched() {
+        BitBoard board = TestGames.board(TestGames.KIWIPETE);
+        byte[] squares = board.squares.clone();
+        int castling = board.getCastlingRights();
+        new Perft(3).count(board, board.getSideToMove(), 3);
+        assertArrayEquals(squares, board.squares);
+        assertEquals(castling, board.getCastlingRights());
+    }
+
+    private static void assertCounts(String fen, long... counts) {
+        BitBoard board = TestGames.board(fen);
+        Perft perft = new Perft(counts.length);
+        for(int depth = 1; depth <= counts.length; depth++) {
+            assertEquals(counts[depth - 1], perft.count(board, board.getSideToMove(), depth), "depth " + depth);
+        }
+    }
+}
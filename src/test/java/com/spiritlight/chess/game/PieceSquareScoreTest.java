@@ -0,0 +1,53 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.spiritlight.chess.game.TestGames.at;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceSquareScoreTest {
+    @Test
+    void startingPositionIsBalanced() {
+        assertEquals(0, TestGames.board(Board.STARTING_FEN).getPieceSquareScore());
+    }
+
+    @Test
+    void incrementalScoreMatchesRecount() {
+        Random random = new Random(21);
+        for(int game = 0; game < 200; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            BitBoard board = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 150)) {
+                board.makeMove(move);
+                assertEquals(recount(board), board.getPieceSquareScore(), board.toFen());
+                board.unmakeMove();
+                assertEquals(recount(board), board.getPieceSquareScore(), board.toFen());
+                board.playMove(move);
+            }
+        }
+    }
+
+    @Test
+    void eventsKeepTheScore() {
+        GameBoard board = Board.fromFen("4k3/1P6/8/3p4/4P3/8/8/4K3 w - - 0 1");
+        assertTrue(board.movePiece(Side.WHITE, at("e4"), at("d5")));
+        assertEquals(recount(board), board.getPieceSquareScore());
+        assertTrue(board.movePiece(Side.BLACK, at("e8"), at("d7")));
+        assertTrue(board.movePiece(Side.WHITE, at("b7"), at("b8")));
+        assertEquals(PieceType.QUEEN.code(Side.WHITE), board.getPieceCode(57));
+        assertEquals(recount(board), board.getPieceSquareScore());
+    }
+
+    private static int recount(BitBoard board) {
+        int score = 0;
+        for(int square = 0; square < 64; square++) {
+            int code = board.getPieceCode(square);
+            if(code != PieceType.EMPTY) score += PieceSquare.value(code, square);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,56 @@
+package com.spiritlight.chess.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionKeyTest {
+    @Test
+    void incrementalKeyMatchesRecomputedKey() {
+        Random random = new Random(6);
+        for(int game = 0; game < 200; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            BitBoard board = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 150)) {
+                board.playMove(move);
+                assertEquals(rebuild(board).positionKey(), board.positionKey());
+            }
+        }
+    }
+
+    @Test
+    void uncapturableEnPassantSquareKeepsTheKey() {
+        BitBoard pushed = TestGames.board(Board.STARTING_FEN);
+        pushed.playMove(Move.of(12, 28, Move.DOUBLE_PUSH));
+        BitBoard placed = TestGames.board("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
+        assertEquals(20, pushed.getEnPassantSquare());
+        assertEquals(placed.positionKey(), pushed.positionKey());
+    }
+
+    @Test
+    void capturableEnPassantSquareChangesTheKey() {
+        BitBoard pushed = TestGames.board("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        pushed.playMove(Move.of(12, 28, Move.DOUBLE_PUSH));
+        BitBoard placed = TestGames.board("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1");
+        assertNotEquals(placed.positionKey(), pushed.positionKey());
+        placed.setFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1");
+        assertEquals(placed.positionKey(), pushed.positionKey());
+    }
+
+    @Test
+    void sideToMoveChangesTheKey() {
+        BitBoard white = TestGames.board(TestGames.KIWIPETE);
+        BitBoard black = rebuild(white);
+        black.setSideToMove(black.getSideToMove().other());
+        assertNotEquals(white.positionKey(), black.positionKey());
+    }
+
+    /**
+     * @return A new board holding the position, read back from its FEN
+     */
+    private static BitBoard rebuild(BitBoard board) {
+        return TestGames.board(board.toFen());
+    }
+}
@@ -0,0 +1,67 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.events.GameEvent;
+import com.spiritlight.chess.pieces.PieceType;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.spiritlight.chess.game.TestGames.at;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSnapshotTest {
+    @Test
+    void snapshotsStayAfterMoves() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        PositionSnapshot before = board.snapshot();
+        byte[] squares = before.toArray();
+        long key = before.positionKey();
+
+        assertTrue(board.movePiece(Side.WHITE, at("e2"), at("e4")));
+        assertArrayEquals(squares, before.toArray());
+        assertEquals(key, before.positionKey());
+        assertEquals(Side.WHITE, before.getSideToMove());
+        assertEquals(PieceType.PAWN.code(Side.WHITE), before.getPieceCode(at("e2")));
+        assertEquals(PieceType.EMPTY, before.getPieceCode(at("e4")));
+
+        PositionSnapshot after = board.snapshot();
+        assertNotEquals(before, after);
+        assertEquals(PieceType.PAWN.code(Side.WHITE), after.getPieceCode(at("e4")));
+        assertEquals(Side.BLACK, after.getSideToMove());
+        assertEquals(board.positionKey(), after.positionKey());
+    }
+
+    @Test
+    void eventsCarryThePositionTheyWereFiredFor() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        List<GameEvent> events = new ArrayList<>();
+        board.addListener((GameEvent.Listener) events::add);
+
+        assertTrue(board.movePiece(Side.WHITE, at("e2"), at("e4")));
+        assertTrue(board.movePiece(Side.BLACK, at("e7"), at("e5")));
+        assertEquals(2, events.size());
+        PositionSnapshot first = events.get(0).getSnapshot();
+        assertNotNull(first);
+        assertEquals(PieceType.PAWN.code(Side.BLACK), first.getPieceCode(at("e7")));
+        assertEquals(Side.BLACK, first.getSideToMove());
+        assertEquals(PieceType.PAWN.code(Side.BLACK), events.get(1).getSnapshot().getPieceCode(at("e5")));
+    }
+
+    @Test
+    void snapshotsAreCachedUntilTheBoardChanges() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        PositionSnapshot snapshot = board.snapshot();
+        assertSame(snapshot, board.snapshot());
+        assertTrue(board.movePiece(Side.WHITE, at("d2"), at("d4")));
+        assertNotSame(snapshot, board.snapshot());
+    }
+
+    @Test
+    void arraysAreCopies() {
+        PositionSnapshot snapshot = Board.fromFen(Board.STARTING_FEN).snapshot();
+        snapshot.toArray()[0] = PieceType.EMPTY;
+        assertEquals(PieceType.ROOK.code(Side.WHITE), snapshot.getPieceCode(0));
+    }
+}
@@ -0,0 +1,43 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.events.GameFinishEvent;
+import com.spiritlight.chess.events.PromotionEvent;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.spiritlight.chess.game.TestGames.at;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromotionTest {
+    @Test
+    void promotesOnLastRank() {
+        GameBoard board = Board.fromFen("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        List<PromotionEvent> events = new ArrayList<>();
+        board.addListener((PromotionEvent.Listener) events::add);
+
+        assertTrue(board.movePiece(Side.WHITE, at("a7"), at("a8")));
+        assertEquals(1, events.size());
+        assertEquals(at("a8"), events.get(0).getLocation());
+        assertTrue(board.toFen().startsWith("Q7/7k/8/8/8/8/8/K7 b"), board.toFen());
+    }
+
+    @Test
+    void ordinaryPawnMovesFireNothing() {
+        GameBoard board = Board.fromFen(Board.STARTING_FEN);
+        List<PromotionEvent> events = new ArrayList<>();
+        board.addListener((PromotionEvent.Listener) events::add);
+        List<GameFinishEvent> finishes = new ArrayList<>();
+        board.addListener((GameFinishEvent.Listener) finishes::add);
+
+        assertTrue(board.movePiece(Side.WHITE, at("f2"), at("f3")));
+        assertTrue(board.movePiece(Side.BLACK, at("e7"), at("e5")));
+        assertTrue(board.movePiece(Side.WHITE, at("g2"), at("g4")));
+        assertTrue(board.movePiece(Side.BLACK, at("d8"), at("h4")));
+        assertTrue(events.isEmpty());
+        assertEquals(1, finishes.size());
+        assertEquals(GameFinishEvent.Reason.CHECKMATE, finishes.get(0).getReason());
+    }
+}
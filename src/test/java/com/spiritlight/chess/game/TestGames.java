@@ -0,0 +1,57 @@
+package com.spiritlight.chess.game;
+
+import com.spiritlight.chess.utils.Location;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Positions and boards shared by the tests
+ */
+public final class TestGames {
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private TestGames() {
+    }
+
+    /**
+     * Creates an 8x8 board holding a position
+     * @param fen The position in Forsyth-Edwards Notation
+     * @return A new board
+     */
+    public static BitBoard board(String fen) {
+        BitBoard board = new BitBoard(7, 7);
+        board.setFen(fen);
+        return board;
+    }
+
+    /**
+     * Plays random legal moves from a position, until the game ends or
+     * enough moves are played
+     * @param fen The position
+     * @param random The source of the moves
+     * @param maxPlies The number of moves to play at most
+     * @return The moves played
+     */
+    public static int[] randomGame(String fen, Random random, int maxPlies) {
+        BitBoard board = board(fen);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] game = new int[maxPlies];
+        int plies = 0;
+        while(plies < maxPlies) {
+            int count = MoveGenerator.generateLegal(board, board.getSideToMove(), moves);
+            if(count == 0) break;
+            game[plies] = moves[random.nextInt(count)];
+            board.playMove(game[plies++]);
+        }
+        return Arrays.copyOf(game, plies);
+    }
+
+    /**
+     * @param square A square in algebraic notation, such as {@code e4}
+     * @return The location of the square
+     */
+    public static Location at(String square) {
+        return Location.of(square.charAt(0), square.charAt(1) - '1');
+    }
+}
@@ -0,0 +1,115 @@
+package com.spiritlight.chess.pgn;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgnTest {
+    private static final String[] RESULTS = {PgnGame.WHITE_WINS, PgnGame.BLACK_WINS, PgnGame.DRAW, PgnGame.UNKNOWN};
+
+    @Test
+    void writtenGamesReadBack() throws IOException {
+        Random random = new Random(15);
+        List<PgnGame> games = new ArrayList<>();
+        for(int i = 0; i < 50; i++) {
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "Game " + i);
+            tags.put("White", "Alice \"A\"");
+            String fen = switch(i % 3) {
+                case 0 -> Board.STARTING_FEN;
+                case 1 -> TestGames.KIWIPETE;
+                default -> TestGames.KIWIPETE.replace(" w ", " b ");
+            };
+            if(!fen.equals(Board.STARTING_FEN)) {
+                tags.put("SetUp", "1");
+                tags.put("FEN", fen);
+            }
+            games.add(new PgnGame(tags, TestGames.randomGame(fen, random, 120), RESULTS[i % RESULTS.length]));
+        }
+
+        StringBuilder out = new StringBuilder();
+        try(PgnWriter writer = new PgnWriter(out)) {
+            for(PgnGame game : games) writer.write(game);
+        }
+        List<PgnGame> read = read(out.toString());
+
+        assertEquals(games.size(), read.size());
+        for(int i = 0; i < games.size(); i++) {
+            PgnGame expected = games.get(i);
+            PgnGame actual = read.get(i);
+            assertTrue(actual.isValid(), actual.getError());
+            assertArrayEquals(expected.getMoves(), actual.getMoves(), "game " + i);
+            assertEquals(expected.getResult(), actual.getResult());
+            assertEquals(expected.getStartingFen(), actual.getStartingFen());
+            assertEquals(expected.getTag("White"), actual.getTag("White"));
+            assertEquals("?", actual.getTag("Site"));
+        }
+    }
+
+    @Test
+    void skipsCommentsVariationsAndAnnotations() {
+        List<PgnGame> games = read("""
+                [Event "Annotated"]
+                [Result "1-0"]
+
+                1. e4 {best by test} e5 2. Nf3 (2. f4 exf4) Nc6 $1 3. Bb5!? a6 ; to the end of line
+                4. Ba4 Nf6 5. O-O 1-0
+                """);
+        assertEquals(1, games.size());
+        PgnGame game = games.get(0);
+        assertTrue(game.isValid(), game.getError());
+        assertEquals(9, game.getMoveCount());
+        assertEquals(PgnGame.WHITE_WINS, game.getResult());
+        assertEquals(Move.KING_CASTLE, Move.flags(game.getMove(8)));
+    }
+
+    @Test
+    void stopsAtIllegalMoves() {
+        List<PgnGame> games = read("""
+                [Event "Broken"]
+
+                1. e4 e5 2. Ke3 Nc6 *
+
+                [Event "Next"]
+
+                1. d4 *
+                """);
+        assertEquals(2, games.size());
+        assertFalse(games.get(0).isValid());
+        assertEquals(2, games.get(0).getMoveCount());
+        assertTrue(games.get(1).isValid());
+        assertEquals(1, games.get(1).getMoveCount());
+    }
+
+    @Test
+    void sanOfSpecialMoves() {
+        San san = new San();
+        BitBoard board = TestGames.board("r3k2r/1P6/8/3pP3/8/8/8/R3K1NR w KQkq d6 0 1");
+        assertEquals("O-O-O", san.toString(board, san.parse(board, "O-O-O")));
+        assertEquals("exd6", san.toString(board, san.parse(board, "exd6")));
+        assertEquals("bxa8=Q+", san.toString(board, san.parse(board, "bxa8=Q")));
+        assertEquals("Nf3", san.toString(board, san.parse(board, "Nf3")));
+        assertEquals(Move.NONE, san.parse(board, "O-O"));
+
+        board.setFen("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        assertEquals("Rad1", san.toString(board, san.parse(board, "Rad1")));
+        assertEquals(Move.NONE, san.parse(board, "Rd1"));
+    }
+
+    private static List<PgnGame> read(String pgn) {
+        List<PgnGame> ret = new ArrayList<>();
+        PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+        reader.forEachRemaining(ret::add);
+        return ret;
+    }
+}
@@ -0,0 +1,92 @@
+package com.spiritlight.chess.pieces;
+
+import com.spiritlight.chess.events.CaptureEvent;
+import com.spiritlight.chess.events.PromotionEvent;
+import com.spiritlight.chess.game.AbstractBoard;
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.TestGames;
+import com.spiritlight.chess.utils.Location;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.spiritlight.chess.game.TestGames.at;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractPieceTest {
+    @Test
+    void otherBoardsAreWalkedForBlockers() {
+        MapBoard board = new MapBoard();
+        Rook rook = board.put(new Rook(null, at("a1"), Side.WHITE));
+        board.put(new Pawn(null, at("a4"), Side.BLACK));
+        board.put(new Pawn(null, at("c3"), Side.BLACK));
+
+        assertFalse(rook.isBlocked(at("a4")));
+        assertTrue(rook.isBlocked(at("a5")));
+        assertFalse(rook.isBlocked(at("h1")));
+        assertFalse(rook.isBlocked(at("b2")));
+        assertTrue(rook.isBlocked(at("e5")));
+        assertFalse(rook.isBlocked(at("b3")));
+    }
+
+    @Test
+    void rulesNeedABitBoard() {
+        MapBoard board = new MapBoard();
+        Rook rook = board.put(new Rook(null, at("a1"), Side.WHITE));
+        assertThrows(IllegalStateException.class, () -> rook.canMove(at("a4")));
+        assertFalse(new Rook(null, at("a1"), Side.WHITE).canMove(at("a4")));
+    }
+
+    @Test
+    void bitBoardsUseTheRules() {
+        BitBoard board = TestGames.board("4k3/8/8/8/p7/8/8/R3K3 w - - 0 1");
+        AbstractPiece rook = board.getPiece(at("a1"));
+        assertTrue(rook.canMove(at("a4")));
+        assertFalse(rook.canMove(at("a5")));
+        assertTrue(rook.isBlocked(at("a5")));
+        assertFalse(rook.isBlocked(at("d1")));
+    }
+
+    /**
+     * A board keeping its pieces by location only
+     */
+    private static final class MapBoard extends AbstractBoard {
+        private final Map<Location, AbstractPiece> pieces = new HashMap<>();
+
+        <T extends AbstractPiece> T put(T piece) {
+            piece.setGameBoard(this);
+            pieces.put(piece.getLocation(), piece);
+            return piece;
+        }
+
+        @Override
+        protected boolean movePiece(Side side, Location source, Location destination) {
+            return false;
+        }
+
+        @Override
+        public AbstractPiece getPiece(Location source) {
+            return pieces.get(source);
+        }
+
+        @Override
+        public boolean hasPiece(Location source) {
+            return pieces.containsKey(source);
+        }
+
+        @Override
+        public void onCapture(CaptureEvent event) {
+        }
+
+        @Override
+        public void onPromote(PromotionEvent event) {
+        }
+
+        @Override
+        public boolean isOutside(Location location) {
+            return location.x() < 0 || location.x() > 7 || location.y() < 0 || location.y() > 7;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.spiritlight.chess.pieces;
+
+import com.spiritlight.chess.game.BitBoard;
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.Move;
+import com.spiritlight.chess.game.MoveGenerator;
+import com.spiritlight.chess.game.TestGames;
+import com.spiritlight.chess.utils.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveRuleTest {
+    @Test
+    void rulesAgreeWithMoveGenerator() {
+        Random random = new Random(18);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for(int game = 0; game < 100; game++) {
+            String fen = game % 2 == 0 ? Board.STARTING_FEN : TestGames.KIWIPETE;
+            BitBoard board = TestGames.board(fen);
+            for(int move : TestGames.randomGame(fen, random, 100)) {
+                board.playMove(move);
+                for(Side side : Side.values()) {
+                    assertAgrees(board, side, moves);
+                }
+            }
+        }
+    }
+
+    private static void assertAgrees(BitBoard board, Side side, int[] moves) {
+        int count = MoveGenerator.generate(board, side, moves);
+        // 0: no move, 1: a move the rules cover, 2: castling
+        int[][] generated = new int[64][64];
+        for(int i = 0; i < count; i++) {
+            int move = moves[i];
+            generated[Move.from(move)][Move.to(move)] = Move.isCastle(move) ? 2 : 1;
+        }
+        for(int from = 0; from < 64; from++) {
+            int code = board.getPieceCode(from);
+            if(code == PieceType.EMPTY || PieceType.sideOf(code) != side.ordinal()) continue;
+            MoveRule rule = PieceType.of(PieceType.typeOf(code)).rule();
+            for(int to = 0; to < 64; to++) {
+                if(to == from) continue;
+                // Rules let a king castle out of or through check, the generator does not
+                if(generated[from][to] == 2) {
+                    if(!rule.canMove(board, from, to)) fail(board.toFen() + ": castling " + from + "-" + to);
+                    continue;
+                }
+                if(PieceType.typeOf(code) == PieceType.KING.ordinal() && Math.abs(to - from) == 2) continue;
+                boolean expected = generated[from][to] == 1;
+                if(rule.canMove(board, from, to) != expected) {
+                    fail(board.toFen() + ": " + PieceType.of(PieceType.typeOf(code)) + " " + from + "-" + to + " expected " + expected);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.spiritlight.chess.utils;
+
+import com.spiritlight.chess.game.Board;
+import com.spiritlight.chess.game.GameBoard;
+import com.spiritlight.chess.game.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatterTest {
+    /**
+     * Borderless formatting as it was before being precompiled
+     */
+    private static final String BORDERLESS_REGEX = "[╔═╗╮╤║│╚╧╝╰┈╯\\w]";
+    private static final String ALPHABET = "╔═╗╮╤║│╚╧╝╰┈╯░♔♕♖♗♘♙♚♛♜♝♞♟_azAZ09 \n\té€";
+
+    @Test
+    void borderlessMatchesTheRegex() {
+        Formatter formatter = Formatter.getBorderlessFormatting();
+        Random random = new Random(23);
+        for(int i = 0; i < 1000; i++) {
+            String input = randomText(random);
+            assertEquals(input.replaceAll(BORDERLESS_REGEX, ""), formatter.format(input), input);
+        }
+    }
+
+    @Test
+    void boardViewsMatchTheRegex() {
+        Random random = new Random(23);
+        GameBoard board = Board.fromFen(TestGames.KIWIPETE);
+        StringBuilder out = new StringBuilder();
+        for(int move : TestGames.randomGame(TestGames.KIWIPETE, random, 50)) {
+            board.playMove(move);
+            String expected = board.getBoardView().replaceAll(BORDERLESS_REGEX, "");
+            assertEquals(expected, board.getBoardView(Formatter.getBorderlessFormatting()));
+            out.setLength(0);
+            board.writeBoardView(Formatter.getBorderlessFormatting(), out);
+            assertEquals(expected, out.toString());
+        }
+        out.setLength(0);
+        board.writeBoardView(Formatter.getDefaultFormatting(), out);
+        assertEquals(board.getBoardView(), out.toString());
+        board.finish();
+    }
+
+    @Test
+    void replacingAndChaining() {
+        Formatter replacing = Formatter.replacing("░♔a", ".K*");
+        Formatter removing = Formatter.removing("*\n");
+        Formatter lambda = input -> input.replace("K", "king");
+        Random random = new Random(23);
+        for(int i = 0; i < 1000; i++) {
+            String input = randomText(random);
+            String replaced = input.replace('░', '.').replace('♔', 'K').replace('a', '*');
+            assertEquals(replaced, replacing.format(input));
+            assertEquals(replaced.replaceAll("[*\n]", ""), replacing.andThen(removing).format(input));
+            assertEquals(removing.format(replaced).replace("K", "king"), replacing.andThen(removing).andThen(lambda).format(input));
+            assertEquals(input, Formatter.getDefaultFormatting().andThen(Formatter.getDefaultFormatting()).format(input));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Formatter.replacing("ab", "c"));
+    }
+
+    private static String randomText(Random random) {
+        char[] text = new char[random.nextInt(100)];
+        for(int i = 0; i < text.length; i++) {
+            text[i] = random.nextInt(8) == 0
+                    ? (char) random.nextInt(0xD800)
+                    : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(text);
+    }
+}
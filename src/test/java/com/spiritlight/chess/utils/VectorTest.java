@@ -0,0 +1,31 @@
+package com.spiritlight.chess.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorTest {
+    @Test
+    void accessorsReadTheCoordinates() {
+        Vector vector = Vector.of(3, -2);
+        assertEquals(3, vector.x());
+        assertEquals(-2, vector.y());
+        assertEquals("Vector[x=3, y=-2]", vector.toString());
+    }
+
+    @Test
+    void equalVectorsShareTheHash() {
+        assertEquals(Vector.of(1, 2), new Vector(1, 2));
+        assertEquals(Vector.of(1, 2).hashCode(), new Vector(1, 2).hashCode());
+        assertNotEquals(Vector.of(1, 2), Vector.of(2, 1));
+        assertTrue(Vector.of(-1, 2).absoluteEquals(Vector.of(1, -2)));
+    }
+
+    @Test
+    void classifiesDirections() {
+        assertTrue(Vector.of(0, 3).isVertical());
+        assertTrue(Vector.of(-3, 0).isHorizontal());
+        assertFalse(Vector.of(0, 0).isVertical());
+        assertTrue(Vector.of(2, 2).isDiagonal());
+    }
+}
@@ -0,0 +1,88 @@
+package com.spiritlight.chess.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameValidatorTest {
+    private static final String FOOLS_MATE = "f2,f3 e7,e5 g2,g4 d8,h4";
+    private static final String SCHOLARS_MATE = "e2,e4 e7,e5 f1,c4 b8,c6 d1,h5 g8,f6 h5,f7";
+    private static final String STALEMATE = "e2,e3 a7,a5 d1,h5 a8,a6 h5,a5 h7,h5 h2,h4 a6,h6 a5,c7 f7,f6 "
+            + "c7,d7 e8,f7 d7,b7 d8,d3 b7,b8 d3,h7 b8,c8 f7,g6 c8,e6";
+    private static final String ILLEGAL = "e2,e4 e7,e5 e1,e3 e8,e7";
+    private static final String UNFINISHED = "d2,d4 d7,d5 c2,c4";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countsGameEndings() {
+        try(GameValidator validator = new GameValidator()) {
+            assertEquals(1, validator.validate(FOOLS_MATE).getBlackWins());
+            assertEquals(1, validator.validate(SCHOLARS_MATE).getWhiteWins());
+            assertEquals(1, validator.validate(STALEMATE).getStalemates());
+            assertEquals(1, validator.validate(UNFINISHED).getUnfinishedGames());
+
+            ValidationReport report = validator.validate(ILLEGAL);
+            assertEquals(0, report.getValidGames());
+            assertEquals(List.of(new Violation(1, 3, "e1,e3", "Move illegal or wrong side")), report.getViolations());
+        }
+    }
+
+    @Test
+    void splitFilesReportLinesOfTheWholeFile() throws IOException {
+        String block = String.join("\n", FOOLS_MATE, SCHOLARS_MATE, "", STALEMATE, ILLEGAL, UNFINISHED) + "\n";
+        int blocks = 3 * (1 << 20) / block.length();
+        Path file = dir.resolve("games.txt");
+        Files.writeString(file, block.repeat(blocks), StandardCharsets.US_ASCII);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try(GameValidator validator = new GameValidator(pool)) {
+            ValidationReport report = validator.validate(file);
+            assertEquals(6L * blocks, report.getLines());
+            assertEquals(5L * blocks, report.getGames());
+            assertEquals(4L * blocks, report.getValidGames());
+            assertEquals(blocks, report.getWhiteWins());
+            assertEquals(blocks, report.getBlackWins());
+            assertEquals(blocks, report.getStalemates());
+            assertEquals(blocks, report.getUnfinishedGames());
+
+            List<Violation> violations = report.getViolations();
+            assertEquals(blocks, violations.size());
+            for(int i = 0; i < blocks; i++) {
+                assertEquals(new Violation(6L * i + 5, 3, "e1,e3", "Move illegal or wrong side"), violations.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void lastLineNeedsNoLineBreak() throws IOException {
+        Path file = dir.resolve("game.txt");
+        Files.writeString(file, FOOLS_MATE + "\n" + ILLEGAL, StandardCharsets.US_ASCII);
+        try(GameValidator validator = new GameValidator()) {
+            ValidationReport report = validator.validate(file);
+            assertEquals(2, report.getGames());
+            assertEquals(1, report.getBlackWins());
+            assertEquals(2, report.getViolations().get(0).line());
+        }
+    }
+
+    @Test
+    void malformedMovesAreViolations() {
+        try(GameValidator validator = new GameValidator()) {
+            assertEquals("Malformed move", validator.validate("e2,e4 e7e").getViolations().get(0).reason());
+            assertEquals("No piece", validator.validate("e3,e4").getViolations().get(0).reason());
+            assertEquals("The game has already ended", validator.validate(FOOLS_MATE + " e2,e4").getViolations().get(0).reason());
+        }
+    }
+}